@@ -3,10 +3,13 @@ import controllers.*;
 import java.util.Collections;
 import java.util.List;
 import java.util.Scanner;
+import java.util.function.IntFunction;
 import models.*;
 import models.User.TypesOfUser;
 
 public class Main {
+    // Internships shown at a time when browsing long lists
+    private static final int PAGE_SIZE = 10;
     private Scanner scanner;
 
     int inputInteger(String prompt, int min, int max) {
@@ -25,6 +28,22 @@ public class Main {
         }
     }
 
+    /**
+     * Show internships a page at a time, fetching each page only when the user asks for it
+     * @param pageAt returns the page starting at an offset
+     */
+    void browseInternships(MenuBoundary ui, IntFunction<Page<Internship>> pageAt) {
+        int offset = 0;
+        while (true) {
+            Page<Internship> page = pageAt.apply(offset);
+            ui.displayInternshipPage(page);
+            if (!page.hasMore() || inputInteger("1. Next page  0. Back: ", 0, 1) == 0) {
+                return;
+            }
+            offset = page.getNextOffset();
+        }
+    }
+
     public static void main (String[] args){
         Scanner sc = new Scanner(System.in);
         // 1. INITIALIZE ALL MANAGERS (Loads data from CSV files) & Variables
@@ -131,9 +150,7 @@ public class Main {
                     System.out.printf("\n%s current year of study: %d", curUser.getUserName(), studentYr);
                     System.out.printf("\n%s current major: %s\n\n", curUser.getUserName(), studentMajor);
 
-                    List<Application> myApplications = applicationManager.getApplicationList().stream()
-                            .filter(a -> a.getStudentID().equals(curUser.getID()))
-                            .toList();
+                    List<Application> myApplications = applicationManager.getApplicationsByStudent(curUser.getID());
                                 
                     //Add it to student object, with the respective applications
                     for(Application a : myApplications){
@@ -171,9 +188,7 @@ public class Main {
                             } else if (filterChoice == 2) {
                                 System.out.print("Enter company name: ");
                                 String company = sc.nextLine().trim();
-                                filteredList = ListingsVisibleToStudent.stream()
-                                    .filter(i -> i.getCompanyName().toLowerCase().contains(company.toLowerCase()))
-                                    .toList();
+                                filteredList = internshipManager.filterByCompany(company, ListingsVisibleToStudent);
                             } else if (filterChoice == 3) {
                                 System.out.print("Enter level (BASIC/INTERMEDIATE/ADVANCED): ");
                                 String levelStr = sc.nextLine().trim().toUpperCase();
@@ -181,9 +196,8 @@ public class Main {
                                 String company = sc.nextLine().trim();
                                 try {
                                     Internship.InternshipLevel level = Internship.InternshipLevel.valueOf(levelStr);
-                                    filteredList = ListingsVisibleToStudent.stream()
+                                    filteredList = internshipManager.filterByCompany(company, ListingsVisibleToStudent).stream()
                                         .filter(i -> i.getLevel() == level)
-                                        .filter(i -> i.getCompanyName().toLowerCase().contains(company.toLowerCase()))
                                         .toList();
                                 } catch (IllegalArgumentException e) {
                                     System.out.println("Invalid level. Please use BASIC, INTERMEDIATE, or ADVANCED.");
@@ -267,16 +281,23 @@ public class Main {
                             int action = main.inputInteger("Choose action: ", 1, 2);
 
                             if (action == 1) {
+                                // Take the slot first, another student may have filled the listing meanwhile
+                                if (!internshipManager.updateListingOnConfirmation(selected.getInternshipID())) {
+                                    System.out.println("Sorry, this internship has no slots left.");
+                                    break;
+                                }
                                 selected.setStatus(Application.ApplicationStatus.ACCEPTED);
+                                applicationManager.updateApplication(selected);
                                 for (Application a : myApplications){
                                     if (a.getStatus() != Application.ApplicationStatus.ACCEPTED){
                                         a.setStatus(Application.ApplicationStatus.WITHDRAWN); // Set the others to withdrawn
+                                        applicationManager.updateApplication(a);
                                     }
                                 }
-                                internshipManager.updateListingOnConfirmation(selected.getInternshipID());
                                 System.out.println("Offer accepted. You have secured this internship.");
                             } else {
                                 selected.setStatus(Application.ApplicationStatus.WITHDRAW_REQUESTED);
+                                applicationManager.updateApplication(selected);
                                 System.out.println("Withdrawn request sent. Please wait for approval.");
                             }
                             break;
@@ -327,7 +348,7 @@ public class Main {
                                  }
                         }
                              case 3 -> // View Pending Internships
-                                 UI.displayInternshipList(internshipManager.getPendingInternships());
+                                 main.browseInternships(UI, offset -> internshipManager.getPendingInternships(offset, PAGE_SIZE));
                              case 4 -> {
                                  // Approve / Reject Internship Opportunity Postings
                                  System.out.print("Enter Internship ID: ");
@@ -349,14 +370,10 @@ public class Main {
                                  }
                         }
                              case 5 -> // View Student Withdrawal Requests
-                                 UI.displayApplicationList(applicationManager.getApplicationList().stream()
-                                     .filter(a -> a.getStatus() == models.Application.ApplicationStatus.WITHDRAW_REQUESTED)
-                                     .toList());
+                                 UI.displayApplicationList(applicationManager.getApplicationsByStatus(models.Application.ApplicationStatus.WITHDRAW_REQUESTED));
                              case 6 -> {
                                  // Approve / Reject Student Withdrawal Requests
-                                 java.util.List<models.Application> withdraws = applicationManager.getApplicationList().stream()
-                                         .filter(a -> a.getStatus() == models.Application.ApplicationStatus.WITHDRAW_REQUESTED)
-                                         .toList();
+                                 java.util.List<models.Application> withdraws = applicationManager.getApplicationsByStatus(models.Application.ApplicationStatus.WITHDRAW_REQUESTED);
                                  if (withdraws.isEmpty()) {
                                      System.out.println("No withdrawal requests found.");
                                      break;
@@ -466,11 +483,12 @@ public class Main {
                                          String sMajor = sc.nextLine().trim();
                                          System.out.print("Enter company name (or leave blank): ");
                                          String sCompany = sc.nextLine().trim();
-                                         UI.displayInternshipList(reportGenerator.generateCustomReport(
+                                         main.browseInternships(UI, offset -> reportGenerator.generateCustomReport(
                                                  sStatus.isEmpty() ? null : sStatus,
                                                  sLevel.isEmpty() ? null : sLevel,
                                                  sMajor.isEmpty() ? null : sMajor,
-                                                 sCompany.isEmpty() ? null : sCompany));
+                                                 sCompany.isEmpty() ? null : sCompany,
+                                                 offset, PAGE_SIZE));
                                      }
                                      case 7 ->  {
                                          System.out.println(reportGenerator.generateSummaryReport());
@@ -5,6 +5,7 @@ import controllers.InternshipManager;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
 import models.Application;
@@ -143,7 +144,7 @@ public class CompanyRepBoundary {
         LocalDate closeDate = inputDate("Enter Closing Date");
 
         if (level != null) {
-            String listingID = "INT" + String.format("%04d", internshipManager.getAllInternships().size() + 1);
+            String listingID = internshipManager.nextListingId();
             internshipManager.createListing(
                 currentUser.getEmail(), title, description, level, major, 
                 openDate, closeDate, currentUser.getCompanyName(), slots, listingID
@@ -161,10 +162,14 @@ public class CompanyRepBoundary {
     }
 
     private void viewApplications() {
-        List<Application> allApplications = applicationManager.getApplicationList().stream()
-            .filter(app -> app.getInternship() != null && app.getInternship().getCompanyRepId().equals(currentUser.getEmail()))
-            .toList();
         List<Internship> myInternships = internshipManager.getInternshipsByRep(currentUser.getEmail());
+        // Applications grouped by listing, looked up per listing instead of filtering every application
+        List<Application> allApplications = new ArrayList<>();
+        for (Internship internship : myInternships) {
+            for (Application app : applicationManager.getApplicationsByInternship(internship.getInternshipID())) {
+                if (app.getInternship() != null) allApplications.add(app);
+            }
+        }
         System.out.println("\n--- Applications for My Internships ---");
         if (myInternships.isEmpty()) {
             System.out.println("You have no internships to view applications for.");
@@ -235,13 +240,15 @@ public class CompanyRepBoundary {
     private void editInternship() {
         System.out.println("\n--- Edit Internship Listing ---");
         String id = inputString("Enter Internship ID to edit: ");
-        Internship internship = internshipManager.findInternshipByID(id);
-        if (internship == null) {
+        Internship stored = internshipManager.findInternshipByID(id);
+        if (stored == null) {
             System.out.println("Error: Internship not found.");
             inputString("Press Enter to continue...");
             return;
         }
 
+        // Edit a copy, it is only committed if nobody changed the listing in the meantime
+        Internship internship = new Internship(stored);
         if (internship.getStatus() == Internship.InternshipStatus.APPROVED) {
             System.out.println("Error: Approved internships cannot be edited.");
             inputString("Press Enter to continue...");
@@ -298,7 +305,7 @@ public class CompanyRepBoundary {
             internship.setTotalSlots(newTotalSlots);
         }
 
-        boolean updated = internshipManager.updateInternship(internship);
+        boolean updated = internshipManager.updateInternship(internship, internship.getVersion());
         if (updated) {
             System.out.println("Internship listing updated successfully!");
         } else {
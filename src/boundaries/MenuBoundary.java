@@ -1,5 +1,6 @@
 package boundaries;
 
+import controllers.Page;
 import java.util.List;
 import models.Application;
 import models.Internship;
@@ -113,6 +114,28 @@ public class MenuBoundary {
         printSeparator();
     }
 
+    /**
+     * Displays one page of internships, numbered by their position in the whole result
+     * @param page Page of internships to display
+     */
+    public void displayInternshipPage(Page<Internship> page) {
+        List<Internship> internships = page.getItems();
+        if (internships.isEmpty()) {
+            System.out.println(page.getOffset() == 0 ? "No internships found." : "No more internships.");
+            return;
+        }
+
+        for (int i = 0; i < internships.size(); i++) {
+            int number = page.getOffset() + i + 1;
+            printSectionHeader("Internship " + number);
+            System.out.printf("%d. %s\n", number, internships.get(i).getDetailedInfo());
+        }
+
+        System.out.println("\nShowing " + (page.getOffset() + 1) + "-" + page.getNextOffset()
+            + (page.hasMore() ? ", more available" : " of " + page.getNextOffset()) + " internship(s)");
+        printSeparator();
+    }
+
     /**
      * Displays a formatted list of applications associated with the parameter 
      * @param applications List of applications to display
@@ -0,0 +1,61 @@
+package controllers;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDate;
+import models.Application;
+import models.Application.ApplicationStatus;
+
+/**
+ * Implements the binary snapshot format of the Application entity
+ * <p>
+ * 
+ * Fields are written in the same order as the CSV columns of {@link ApplicationSerializer}, with the status as an<br>
+ * enum ordinal and the applied date as an epoch day. An applied date that is not in dd/MM/yyyy form is kept as text.
+ * 
+ */
+public class ApplicationBinarySerializer implements BinarySerializer<Application> {
+	
+	private static final ApplicationStatus[] STATUSES = ApplicationStatus.values();
+	// Marks an applied date that is stored as text instead of an epoch day
+	private static final int TEXT_DATE = Integer.MIN_VALUE;
+
+	@Override
+	public void write(DataOutput out, Application application) throws IOException {
+		BinarySerializer.writeString(out, application.getID());
+		BinarySerializer.writeString(out, application.getStudentID());
+		BinarySerializer.writeString(out, application.getInternshipID());
+		out.writeByte(application.getStatus().ordinal());
+		LocalDate appliedOn = application.getAppliedOn();
+		if (appliedOn != null) {
+			out.writeInt((int) appliedOn.toEpochDay());
+		} else {
+			out.writeInt(TEXT_DATE);
+			BinarySerializer.writeString(out, application.getAppliedDate());
+		}
+	}
+	
+	@Override
+	public Application read(DataInput in) throws IOException {
+		String id = BinarySerializer.readString(in);
+		String studentId = BinarySerializer.readString(in);
+		String internshipId = BinarySerializer.readString(in);
+		ApplicationStatus status = STATUSES[in.readUnsignedByte()];
+		int epochDay = in.readInt();
+		if (epochDay == TEXT_DATE) {
+			return new Application(id, studentId, internshipId, status.name(), BinarySerializer.readString(in));
+		}
+		return new Application(id, studentId, internshipId, status, LocalDate.ofEpochDay(epochDay));
+	}
+	
+	/**
+	 * Obtains the filepath of the Application snapshot
+	 * 
+	 * @return the string for filepath
+	 */
+	@Override
+	public String getFilePath() {
+		return "assets/testcases/application_list.bin";
+	}
+}
@@ -2,6 +2,7 @@ package controllers;
 
 import java.util.List;
 import models.*;
+import models.Application.StateTransition;
 
 /**
  * ApplicationManager manages application workflows using FSM.
@@ -18,6 +19,7 @@ public class ApplicationManager {
     private ApplicationRepository repository;
     private InternshipManager internshipManager;
     private UserManager userManager;
+    private TransitionLog transitionLog;
 
     public ApplicationManager() {
         // empty manager for testing or manual wiring
@@ -25,27 +27,101 @@ public class ApplicationManager {
 
     public ApplicationManager(InternshipManager internshipManager) {
         this.internshipManager = internshipManager;
-        DataPersistence<Application> persistence = new FileApplicationPersistence();
-        this.repository = new ApplicationRepository(persistence);
+        this.repository = new ApplicationRepository(createPersistence());
+        this.transitionLog = new TransitionLog(transitionLogPath());
+        replayTransitionLog();
     }
 
     public ApplicationManager(InternshipManager internshipManager, UserManager userManager) {
         this.internshipManager = internshipManager;
         this.userManager = userManager;
-        DataPersistence<Application> persistence = new FileApplicationPersistence();
-        this.repository = new ApplicationRepository(persistence);
+        this.repository = new ApplicationRepository(createPersistence());
+        this.transitionLog = new TransitionLog(transitionLogPath());
+        replayTransitionLog();
         // After loading applications, resolve references to Student and Internship objects
         resolveObjectReferences();
     }
     
+    /**
+     * Persistence of the applications: the binary snapshot when it is current, otherwise the CSV file,
+     * with the change log replayed on top
+     */
+    static DataPersistence<Application> createPersistence() {
+        ApplicationSerializer serializer = new ApplicationSerializer();
+        return new ChangeLogPersistence<>(
+            new SnapshotFilePersistence<>(new FileApplicationPersistence(), serializer.getFilePath(), new ApplicationBinarySerializer()),
+            serializer, Application::getID);
+    }
+
+    /**
+     * Path of the log of transitions performed since the applications were last saved
+     */
+    static String transitionLogPath() {
+        return new ApplicationSerializer().getFilePath() + ".wal";
+    }
+
     /**
      * Returns the list of all applications.
-     * @return List of all applications, or empty list if repository is null
+     * @return read-only List of all applications, or empty list if repository is null
      */
     public List<Application> getApplicationList() {
         return repository != null ? repository.getAll() : List.of();
     }
 
+    /**
+     * Returns the number of applications without visiting them.
+     * @return number of applications, or 0 if repository is null
+     */
+    public int getApplicationCount() {
+        return repository != null ? repository.count() : 0;
+    }
+
+    /**
+     * Returns the number of applications currently in a status without visiting them.
+     * @param status The application status
+     * @return number of applications in the status, or 0 if repository is null
+     */
+    public int getApplicationCountByStatus(Application.ApplicationStatus status) {
+        return repository != null ? repository.countByStatus(status) : 0;
+    }
+
+    /**
+     * Returns one page of all applications, in the order they were added.
+     * @param offset number of applications to skip
+     * @param limit maximum number of applications on the page
+     * @return Page of applications, empty if repository is null
+     */
+    public Page<Application> getApplicationList(int offset, int limit) {
+        return Page.of(getApplicationList(), offset, limit);
+    }
+
+    /**
+     * Returns the applications of a student without scanning all applications.
+     * @param studentID ID of the student
+     * @return List of the student's applications, or empty list if repository is null
+     */
+    public List<Application> getApplicationsByStudent(String studentID) {
+        return repository != null ? repository.findByStudent(studentID) : List.of();
+    }
+
+    /**
+     * Returns the applications for an internship without scanning all applications.
+     * @param internshipID ID of the internship
+     * @return List of applications for the internship, or empty list if repository is null
+     */
+    public List<Application> getApplicationsByInternship(String internshipID) {
+        return repository != null ? repository.findByInternship(internshipID) : List.of();
+    }
+
+    /**
+     * Returns the applications currently in a status without scanning all applications.
+     * @param status The application status
+     * @return List of applications in the status, or empty list if repository is null
+     */
+    public List<Application> getApplicationsByStatus(Application.ApplicationStatus status) {
+        return repository != null ? repository.findByStatus(status) : List.of();
+    }
+
     /**
      * Creates a new application for a student to apply for an internship.
      * @param student The student applying
@@ -71,11 +147,30 @@ public class ApplicationManager {
         if (application == null) return false;
         boolean transitioned = application.accept();
         if (!transitioned) return false;
-        if (repository != null) repository.update(application);
-        // If internship manager available, update listing confirmation
+        // If internship manager available, take a slot of the listing and save it before the acceptance is recorded.
+        // The transition log holds no slot counts, so a logged acceptance must never find its slot unsaved after a crash
+        boolean slotTaken = false;
         if (internshipManager != null && application.getInternshipID() != null) {
-            internshipManager.updateListingOnConfirmation(application.getInternshipID());
+            if (!internshipManager.updateListingOnConfirmation(application.getInternshipID())) {
+                application.setStatus(StateTransition.ACCEPT.getFromState());
+                System.out.println("Error: No slots left for this internship.");
+                return false;
+            }
+            slotTaken = true;
+            if (!internshipManager.saveChanges()) {
+                internshipManager.updateListingOnWithdrawal(application.getInternshipID());
+                application.setStatus(StateTransition.ACCEPT.getFromState());
+                return false;
+            }
         }
+        if (!logTransition(application, StateTransition.ACCEPT)) {
+            if (slotTaken) {
+                internshipManager.updateListingOnWithdrawal(application.getInternshipID());
+                internshipManager.saveChanges();
+            }
+            return false;
+        }
+        if (repository != null) repository.update(application);
         return true;
     }
 
@@ -88,6 +183,7 @@ public class ApplicationManager {
         if (application == null) return false;
         boolean transitioned = application.reject();
         if (!transitioned) return false;
+        if (!logTransition(application, StateTransition.REJECT_APPLICATION)) return false;
         if (repository != null) repository.update(application);
         return true;
     }
@@ -102,6 +198,7 @@ public class ApplicationManager {
         if (application == null) return false;
         boolean transitioned = application.requestWithdrawal();
         if (!transitioned) return false;
+        if (!logTransition(application, StateTransition.REQUEST_WITHDRAWAL)) return false;
         if (repository != null) repository.update(application);
         return true;
     }
@@ -117,9 +214,12 @@ public class ApplicationManager {
         if (application == null) return false;
         boolean transitioned = application.approveWithdrawal();
         if (!transitioned) return false;
+        if (!logTransition(application, StateTransition.APPROVE_WITHDRAWAL)) return false;
         if (repository != null) repository.update(application);
         if (internshipManager != null && application.getInternshipID() != null) {
+            // Released only after the withdrawal is logged, so a crash in between keeps the slot taken rather than oversell it
             internshipManager.updateListingOnWithdrawal(application.getInternshipID());
+            internshipManager.saveChanges();
         }
         return true;
     }
@@ -134,6 +234,7 @@ public class ApplicationManager {
         if (application == null) return false;
         boolean transitioned = application.rejectWithdrawal();
         if (!transitioned) return false;
+        if (!logTransition(application, StateTransition.REJECT_WITHDRAWAL)) return false;
         if (repository != null) repository.update(application);
         return true;
     }
@@ -160,6 +261,7 @@ public class ApplicationManager {
             System.out.println("Error: Application could not be accepted. Current status: " + application.getStatus());
             return false;
         }
+        if (!logTransition(application, StateTransition.ACCEPT)) return false;
 
         internshipManager.updateInternship(internship);
         if (repository != null) repository.update(application);
@@ -194,10 +296,60 @@ public class ApplicationManager {
         return rejectWithdrawal(app);
     }
 
+    /**
+     * Records changes made directly on an application, such as a status set by the student menu,
+     * so that they are included in the next save.
+     * @param application The modified application
+     * @return true if the application is known to the repository
+     */
+    public boolean updateApplication(Application application) {
+        if (application == null || repository == null) return false;
+        return repository.update(application);
+    }
+
     public Application findByID(String id) {
         return repository != null ? repository.findById(id) : null;
     }
 
+    /**
+     * Durably records a transition that was just performed.<br>
+     * If it cannot be logged the transition is reverted, so that no state change is acknowledged without being durable.
+     * @return true if the transition was logged or there is no log
+     */
+    private boolean logTransition(Application application, StateTransition transition) {
+        if (transitionLog == null) return true;
+        try {
+            transitionLog.append(application.getID(), transition);
+            return true;
+        } catch (Exception e) {
+            application.setStatus(transition.getFromState());
+            System.out.println("Error recording application change: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Re-applies transitions logged after the last save.<br>
+     * Every save cuts the transitions logged before it off the log, so its transitions are normally missing from the
+     * loaded applications. A crash between a save and the checkpoint, or a transition still being logged while the save
+     * ran, leaves transitions that are already saved. Replaying those is harmless: an application's logged transitions
+     * form one path of the FSM, its saved state lies on that path, and replaying the path from any state on it ends
+     * where the path ends. Transitions out of PENDING, UNSUCCESSFUL or WITHDRAWN that no longer match are rejected, and
+     * the REQUEST_WITHDRAWAL/REJECT_WITHDRAWAL cycle alternates between two states, so replay falls in step with
+     * the path after at most one rejected transition.<br>
+     * Slot counts of internships are not in this log. A slot taken by a placement is saved before the acceptance is
+     * logged and a released slot right after the withdrawal is logged, so they are restored by the internship persistence.
+     * A crash between the two writes of a withdrawal leaves its slot taken, never a slot sold twice.
+     */
+    private void replayTransitionLog() {
+        for (TransitionLog.Entry entry : transitionLog.readEntries()) {
+            Application app = repository.findById(entry.getApplicationId());
+            if (app != null && app.applyTransition(entry.getTransition())) {
+                repository.update(app);
+            }
+        }
+    }
+
     private void resolveObjectReferences() {
         if (userManager == null || repository == null) {
             return;
@@ -209,6 +361,15 @@ public class ApplicationManager {
     }
     
     public void saveTofile() {
-        if (repository != null) repository.save();
+        try {
+            if (repository != null) {
+                long mark = transitionLog != null ? transitionLog.mark() : 0;
+                repository.save();
+                // Every transition logged before the save is now part of the saved applications
+                if (transitionLog != null) transitionLog.checkpoint(mark);
+            }
+        } catch (Exception e) {
+            System.out.println("Error saving applications: " + e.getMessage());
+        }
     }
 }
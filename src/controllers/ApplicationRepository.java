@@ -1,59 +1,217 @@
 package controllers;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import models.Application;
+import models.Application.ApplicationStatus;
 
 /**
  * Repository for applications.
  * Handles actions like delete/edit/add application.<br>
+ * Applications are indexed by ID, and by student ID, internship ID and status so that the dashboards<br>
+ * only visit the applications they display. Applications are changed in place, so {@link #update} must be<br>
+ * called after a change for the indexes to follow it.<br>
  * Single Responsibility: Data access and retrieval only.
  */
 public class ApplicationRepository {
     private DataPersistence<Application> persistence;
-    private List<Application> applications;
+    // Keyed by application ID, iterates in the order the applications were added
+    private final Map<String, Application> applications = new LinkedHashMap<>();
+    private final Map<String, Set<Application>> byStudent = new HashMap<>();
+    private final Map<String, Set<Application>> byInternship = new HashMap<>();
+    private final Map<ApplicationStatus, Set<Application>> byStatus = new EnumMap<>(ApplicationStatus.class);
+    // Keys each application is indexed under, which may be stale after an in-place change until update is called
+    private final Map<String, IndexKeys> indexedKeys = new HashMap<>();
+    // Read-only copy handed out by getAll, rebuilt on the first read after an application is added, replaced or deleted
+    private List<Application> snapshot;
+    // Applications added or changed, and IDs deleted, since the last save
+    private final Map<String, Application> dirty = new LinkedHashMap<>();
+    private final Set<String> deletedIds = new LinkedHashSet<>();
 
     public ApplicationRepository(DataPersistence<Application> persistence) {
         this.persistence = persistence;
-        List<Application> loaded = persistence.load();
-        this.applications = (loaded != null) ? new ArrayList<>(loaded) : new ArrayList<>();
+        persistence.load(app -> {
+            if (applications.putIfAbsent(app.getID(), app) == null) {
+                index(app);
+            }
+        });
     }
 
+    /**
+     * @return all applications as a read-only list, the same list is returned until the repository changes
+     */
     public List<Application> getAll() {
-        return new ArrayList<>(applications);
+        List<Application> all = snapshot;
+        if (all == null) {
+            all = List.copyOf(applications.values());
+            snapshot = all;
+        }
+        return all;
     }
 
     public Application findById(String id) {
         if (id == null) return null;
-        for (Application a : applications) {
-            if (id.equals(a.getID())) return a;
-        }
-        return null;
+        return applications.get(id);
+    }
+
+    /**
+     * @param studentID ID of the student
+     * @return applications of the student, in the order they were added
+     */
+    public List<Application> findByStudent(String studentID) {
+        return new ArrayList<>(byStudent.getOrDefault(studentID, Set.of()));
+    }
+
+    /**
+     * @param internshipID ID of the internship
+     * @return applications for the internship, in the order they were added
+     */
+    public List<Application> findByInternship(String internshipID) {
+        return new ArrayList<>(byInternship.getOrDefault(internshipID, Set.of()));
+    }
+
+    /**
+     * @param status status to look up
+     * @return applications currently in the status, in the order they reached it
+     */
+    public List<Application> findByStatus(ApplicationStatus status) {
+        return new ArrayList<>(byStatus.getOrDefault(status, Set.of()));
+    }
+
+    /**
+     * @param status status to count
+     * @return number of applications currently in the status
+     */
+    public int countByStatus(ApplicationStatus status) {
+        Set<Application> bucket = byStatus.get(status);
+        return bucket == null ? 0 : bucket.size();
+    }
+
+    /**
+     * @return number of applications
+     */
+    public int count() {
+        return applications.size();
     }
 
     public void add(Application app) {
         if (app == null) return;
-        applications.add(app);
+        Application previous = applications.put(app.getID(), app);
+        if (previous != null) unindex(previous);
+        index(app);
+        snapshot = null;
+        markDirty(app);
     }
 
     public boolean update(Application app) {
         if (app == null || app.getID() == null) return false;
-        for (int i = 0; i < applications.size(); i++) {
-            if (applications.get(i).getID().equals(app.getID())) {
-                applications.set(i, app);
-                return true;
-            }
+        Application previous = applications.replace(app.getID(), app);
+        if (previous == null) return false;
+        if (previous == app) {
+            reindex(app);
+        } else {
+            unindex(previous);
+            index(app);
+            snapshot = null;
         }
-        return false;
+        markDirty(app);
+        return true;
     }
 
     public boolean delete(String id) {
         Application a = findById(id);
         if (a == null) return false;
-        return applications.remove(a);
+        applications.remove(id);
+        unindex(a);
+        snapshot = null;
+        dirty.remove(id);
+        deletedIds.add(id);
+        return true;
     }
 
+    /**
+     * Save applications changed since the last save to persistent storage
+     */
     public void save() {
-        persistence.save(new ArrayList<>(applications));
+        persistence.saveChanges(getAll(), new ArrayList<>(dirty.values()), new ArrayList<>(deletedIds));
+        dirty.clear();
+        deletedIds.clear();
+    }
+
+    private void markDirty(Application app) {
+        dirty.put(app.getID(), app);
+        deletedIds.remove(app.getID());
+    }
+
+    private void index(Application app) {
+        IndexKeys keys = new IndexKeys(app);
+        indexedKeys.put(app.getID(), keys);
+        byStudent.computeIfAbsent(keys.studentID, k -> new LinkedHashSet<>()).add(app);
+        byInternship.computeIfAbsent(keys.internshipID, k -> new LinkedHashSet<>()).add(app);
+        if (keys.status != null) {
+            byStatus.computeIfAbsent(keys.status, k -> new LinkedHashSet<>()).add(app);
+        }
+    }
+
+    /**
+     * Move an application changed in place to the buckets of its current fields.<br>
+     * Buckets whose key did not change are left alone, so the application keeps its position in them.
+     */
+    private void reindex(Application app) {
+        IndexKeys old = indexedKeys.get(app.getID());
+        IndexKeys keys = new IndexKeys(app);
+        indexedKeys.put(app.getID(), keys);
+        if (!Objects.equals(old.studentID, keys.studentID)) {
+            removeFrom(byStudent, old.studentID, app);
+            byStudent.computeIfAbsent(keys.studentID, k -> new LinkedHashSet<>()).add(app);
+        }
+        if (!Objects.equals(old.internshipID, keys.internshipID)) {
+            removeFrom(byInternship, old.internshipID, app);
+            byInternship.computeIfAbsent(keys.internshipID, k -> new LinkedHashSet<>()).add(app);
+        }
+        if (old.status != keys.status) {
+            if (old.status != null) removeFrom(byStatus, old.status, app);
+            if (keys.status != null) byStatus.computeIfAbsent(keys.status, k -> new LinkedHashSet<>()).add(app);
+        }
+    }
+
+    /**
+     * Remove an application from the indexes under the keys it was indexed with, not its current fields
+     */
+    private void unindex(Application app) {
+        IndexKeys keys = indexedKeys.remove(app.getID());
+        if (keys == null) return;
+        removeFrom(byStudent, keys.studentID, app);
+        removeFrom(byInternship, keys.internshipID, app);
+        if (keys.status != null) removeFrom(byStatus, keys.status, app);
+    }
+
+    private static <K> void removeFrom(Map<K, Set<Application>> index, K key, Application app) {
+        Set<Application> bucket = index.get(key);
+        if (bucket == null) return;
+        bucket.remove(app);
+        if (bucket.isEmpty()) index.remove(key);
+    }
+
+    /**
+     * Indexed fields of an application at the time it was indexed
+     */
+    private static final class IndexKeys {
+        private final String studentID;
+        private final String internshipID;
+        private final ApplicationStatus status;
+
+        IndexKeys(Application app) {
+            this.studentID = app.getStudentID();
+            this.internshipID = app.getInternshipID();
+            this.status = app.getStatus();
+        }
     }
 }
@@ -39,8 +39,21 @@ public class ApplicationSerializer implements Serializer<Application>{
 	 */
 	@Override
 	public Application deserialize(String line) {
-		String[] rowData = line.split(",");
-		Application application = new Application(rowData[0],rowData[1],rowData[2],rowData[3],rowData[4]);
+		return deserialize((CharSequence) line);
+	}
+	
+	
+	/**
+	 * Deserializes the Application reading the fields in place with {@link CsvTokenizer}, so a view over<br>
+	 * a memory-mapped file is never copied into a String. See {@link #deserialize(String)} for the columns.
+	 * 
+	 * @param line the line to deserialize
+	 * @return the Application Object reconstructed from the line of text
+	 */
+	@Override
+	public Application deserialize(CharSequence line) {
+		CsvTokenizer rowData = CsvTokenizer.forCurrentThread().reset(line);
+		Application application = new Application(rowData.getString(0),rowData.getString(1),rowData.getString(2),rowData.getString(3),rowData.getString(4));
 		if (userManager != null) {
 		    application.setStudentRef((Student) userManager.getStudentByID(application.getStudentID()));
 		}
@@ -60,9 +73,26 @@ public class ApplicationSerializer implements Serializer<Application>{
 	 */
 	@Override
 	public String serialize(Application application) {
-		String line = application.getID() + "," + application.getStudentID() + "," + application.getInternshipID() + "," + 
-		application.getStatus() + "," + application.getAppliedDate();
-		return line;
+		StringBuilder sb = new StringBuilder(64);
+		serialize(application, sb);
+		return sb.toString();
+	}
+	
+	
+	/**
+	 * Appends the fields of the Application to the row directly, see {@link #serialize(Application)}
+	 * 
+	 * @param application the Application to serialize
+	 * @param sb the builder the row is appended to
+	 */
+	@Override
+	public void serialize(Application application, StringBuilder sb) {
+		CsvTokenizer.appendEscaped(sb, application.getID());
+		sb.append(',');
+		CsvTokenizer.appendEscaped(sb, application.getStudentID());
+		sb.append(',');
+		CsvTokenizer.appendEscaped(sb, application.getInternshipID());
+		sb.append(',').append(application.getStatus()).append(',').append(application.getAppliedDate());
 	}
 	
 	
@@ -0,0 +1,70 @@
+package controllers;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Interface that defines the contract for writing and reading entities of type {@code T} in the binary snapshot format
+ * <p>
+ * 
+ * A {@code BinarySerializer} is the compact counterpart of {@link Serializer}: strings are length-prefixed,<br>
+ * enums are stored as ordinals and dates as epoch days, so a snapshot is read without any text parsing.
+ * @param <T> the type of entity to be written and read
+ */
+public interface BinarySerializer<T> {
+
+	/**
+	 * Writes the fields of the entity
+	 * 
+	 * @param out the snapshot being written
+	 * @param entity the entity to write
+	 * @throws IOException if the snapshot could not be written
+	 */
+	public void write(DataOutput out, T entity) throws IOException;
+	
+	
+	/**
+	 * Reads the fields of one entity and creates it
+	 * 
+	 * @param in the snapshot being read
+	 * @return the entity reconstructed from the snapshot
+	 * @throws IOException if the snapshot could not be read or is truncated
+	 */
+	public T read(DataInput in) throws IOException;
+	
+	
+	/**
+	 * Obtains the filepath of the snapshot for the corresponding entity class
+	 * 
+	 * @return the string for filepath
+	 */
+	public String getFilePath();
+	
+	
+	/**
+	 * Writes a string as its UTF-8 byte length followed by the bytes, or -1 for null
+	 */
+	public static void writeString(DataOutput out, String value) throws IOException {
+		if (value == null) {
+			out.writeInt(-1);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+	
+	
+	/**
+	 * Reads a string written by {@link #writeString(DataOutput, String)}
+	 */
+	public static String readString(DataInput in) throws IOException {
+		int length = in.readInt();
+		if (length < 0) return null;
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,137 @@
+package controllers;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import models.Internship;
+import models.Internship.InternshipLevel;
+import models.Internship.InternshipStatus;
+
+/**
+ * Bitmap index over the fields internships are filtered by: status, level, preferred major, visibility and
+ * whether all slots are taken.<br>
+ * Every internship gets a row number, and each value of a field has a bitmap with the rows of the internships
+ * having that value. A filter on several fields is then an AND of their bitmaps, a word of 64 rows at a time.<br>
+ * Rows of deleted internships are reused. Lookups share a read lock, changes take the write lock.
+ */
+public class BitmapIndex implements InternshipIndex {
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> rowById = new HashMap<>();
+    // Indexed values of each row, null for free rows
+    private final List<Row> rows = new ArrayList<>();
+    private final BitSet used = new BitSet();
+    private final Map<InternshipStatus, BitSet> byStatus = new EnumMap<>(InternshipStatus.class);
+    private final Map<InternshipLevel, BitSet> byLevel = new EnumMap<>(InternshipLevel.class);
+    // Keyed by lower-cased major, majors are compared ignoring case
+    private final Map<String, BitSet> byMajor = new HashMap<>();
+    private final BitSet visible = new BitSet();
+    private final BitSet full = new BitSet();
+
+    @Override
+    public void upsert(Internship internship) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = rowById.get(internship.getInternshipID());
+            int row;
+            if (existing != null) {
+                row = existing;
+                clear(row, rows.get(row));
+            } else {
+                row = used.nextClearBit(0);
+                used.set(row);
+                rowById.put(internship.getInternshipID(), row);
+            }
+            Row values = new Row(internship);
+            while (rows.size() <= row) rows.add(null);
+            rows.set(row, values);
+            if (values.status != null) byStatus.computeIfAbsent(values.status, k -> new BitSet()).set(row);
+            if (values.level != null) byLevel.computeIfAbsent(values.level, k -> new BitSet()).set(row);
+            if (values.major != null) byMajor.computeIfAbsent(values.major, k -> new BitSet()).set(row);
+            visible.set(row, internship.isVisible());
+            full.set(row, internship.isFull());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Internship internship) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rowById.remove(internship.getInternshipID());
+            if (row == null) return;
+            clear(row, rows.get(row));
+            rows.set(row, null);
+            used.clear(row);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void clear(int row, Row values) {
+        if (values.status != null) byStatus.get(values.status).clear(row);
+        if (values.level != null) byLevel.get(values.level).clear(row);
+        if (values.major != null) byMajor.get(values.major).clear(row);
+        visible.clear(row);
+        full.clear(row);
+    }
+
+    /**
+     * Find the internships matching every given criterion, a null criterion matches everything
+     * @param status status of the internship
+     * @param level level of the internship
+     * @param major preferred major, ignoring case
+     * @param isVisible whether the internship is visible to students
+     * @param isFull whether all slots of the internship are taken
+     * @return the matching internships, in no particular order
+     */
+    public List<Internship> select(InternshipStatus status, InternshipLevel level, String major,
+                                   Boolean isVisible, Boolean isFull) {
+        lock.readLock().lock();
+        try {
+            BitSet result = (BitSet) used.clone();
+            if (status != null) and(result, byStatus.get(status));
+            if (level != null) and(result, byLevel.get(level));
+            if (major != null) and(result, byMajor.get(major.toLowerCase()));
+            if (isVisible != null) {
+                if (isVisible) result.and(visible); else result.andNot(visible);
+            }
+            if (isFull != null) {
+                if (isFull) result.and(full); else result.andNot(full);
+            }
+            List<Internship> matches = new ArrayList<>(result.cardinality());
+            for (int row = result.nextSetBit(0); row >= 0; row = result.nextSetBit(row + 1)) {
+                matches.add(rows.get(row).internship);
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void and(BitSet result, BitSet bitmap) {
+        if (bitmap == null) result.clear(); else result.and(bitmap);
+    }
+
+    /**
+     * An internship with the values it is indexed under
+     */
+    private static final class Row {
+        private final Internship internship;
+        private final InternshipStatus status;
+        private final InternshipLevel level;
+        private final String major;
+
+        Row(Internship internship) {
+            this.internship = internship;
+            this.status = internship.getStatus();
+            this.level = internship.getLevel();
+            this.major = internship.getPreferredMajor() == null ? null : internship.getPreferredMajor().toLowerCase();
+        }
+    }
+}
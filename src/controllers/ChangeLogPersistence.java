@@ -0,0 +1,158 @@
+package controllers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Decorates another DataPersistence with an append-only change log. @see DataPersistence for more information on methods<br>
+ * {@link #saveChanges} appends one record per changed or deleted entity to {@code <file>.log} and forces it to disk,
+ * so the cost of a save follows the number of changes rather than the size of the data set.<br>
+ * Once the log holds more records than half of the entities it is compacted: everything is saved through the
+ * decorated persistence and the log is deleted. Loading replays the log on top of the decorated persistence.
+ *
+ * @param <T> the type of entity persisted
+ */
+public class ChangeLogPersistence<T> implements DataPersistence<T> {
+    private static final char UPSERT = '+';
+    private static final char DELETE = '-';
+    // Small files are cheap to rewrite, so they still batch this many changes before compacting
+    private static final int MIN_COMPACT_RECORDS = 1000;
+
+    private final DataPersistence<T> base;
+    private final Serializer<T> serializer;
+    private final Function<? super T, String> keyOf;
+    private final Path logPath;
+    private long loggedRecords;
+
+    /**
+     * Change log over the CSV file of the serializer
+     * @param serializer serializer of the entity, also used for the log records
+     * @param keyOf extracts the unique key of an entity
+     */
+    public ChangeLogPersistence(Serializer<T> serializer, Function<? super T, String> keyOf) {
+        this(new FilePersistence<>(serializer), serializer, keyOf);
+    }
+
+    /**
+     * @param base persistence holding the compacted data set
+     * @param serializer serializer of the entity, its file path also names the log
+     * @param keyOf extracts the unique key of an entity
+     */
+    public ChangeLogPersistence(DataPersistence<T> base, Serializer<T> serializer, Function<? super T, String> keyOf) {
+        this.base = base;
+        this.serializer = serializer;
+        this.keyOf = keyOf;
+        this.logPath = Path.of(serializer.getFilePath() + ".log");
+    }
+
+    @Override
+    public List<T> load() {
+        List<T> entities = new ArrayList<>();
+        load(entities::add);
+        return entities;
+    }
+
+    @Override
+    public void load(Consumer<? super T> consumer) {
+        List<String> records = readLog();
+        loggedRecords = records.size();
+        if (records.isEmpty()) {
+            base.load(consumer);
+            return;
+        }
+        Map<String, T> byKey = new LinkedHashMap<>();
+        base.load(entity -> byKey.put(keyOf.apply(entity), entity));
+        for (String record : records) {
+            if (record.charAt(0) == DELETE) {
+                byKey.remove(record.substring(1));
+            } else {
+                T entity = serializer.deserialize(record.substring(1));
+                if (entity != null) byKey.put(keyOf.apply(entity), entity);
+            }
+        }
+        byKey.values().forEach(consumer);
+    }
+
+    /**
+     * Rewrite everything through the decorated persistence and discard the log
+     */
+    @Override
+    public void save(List<T> entities) {
+        base.save(entities);
+        try {
+            Files.deleteIfExists(logPath);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not clear " + logPath, e);
+        }
+        loggedRecords = 0;
+    }
+
+    @Override
+    public void saveChanges(List<T> all, Collection<T> changed, Collection<String> deletedKeys) {
+        int records = changed.size() + deletedKeys.size();
+        if (records == 0) return;
+        if (loggedRecords + records > Math.max(MIN_COMPACT_RECORDS, all.size() / 2)) {
+            save(all);
+            return;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (T entity : changed) {
+            sb.append(UPSERT);
+            serializer.serialize(entity, sb);
+            sb.append('\n');
+        }
+        for (String key : deletedKeys) {
+            sb.append(DELETE).append(key).append('\n');
+        }
+        append(sb.toString());
+        loggedRecords += records;
+    }
+
+    private void append(String records) {
+        ByteBuffer bytes = StandardCharsets.UTF_8.encode(records);
+        try (FileChannel channel = FileChannel.open(logPath,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to " + logPath, e);
+        }
+    }
+
+    /**
+     * Read the complete records of the log. A trailing record without its newline was torn by a crash and is ignored.
+     */
+    private List<String> readLog() {
+        String content;
+        try {
+            content = Files.readString(logPath, StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            return List.of();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + logPath, e);
+        }
+        List<String> records = new ArrayList<>();
+        int start = 0;
+        for (int end = content.indexOf('\n'); end >= 0; end = content.indexOf('\n', start)) {
+            if (end > start) records.add(content.substring(start, end));
+            start = end + 1;
+        }
+        return records;
+    }
+}
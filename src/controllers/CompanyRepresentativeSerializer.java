@@ -28,25 +28,39 @@ public class CompanyRepresentativeSerializer implements Serializer<CompanyRepres
 	 * @return the CompanyRepresentative Object reconstructed from the line of text
 	 */
 	public CompanyRepresentative deserialize(String line) {
-		String[] rowData = line.split(",");
+		return deserialize((CharSequence) line);
+	}
+	
+	
+	/**
+	 * Deserializes the CompanyRepresentative reading the fields in place with {@link CsvTokenizer}.<br>
+	 * See {@link #deserialize(String)} for the columns.
+	 * 
+	 * @param line the line to deserialize
+	 * @return the CompanyRepresentative Object reconstructed from the line of text
+	 */
+	@Override
+	public CompanyRepresentative deserialize(CharSequence line) {
+		CsvTokenizer rowData = CsvTokenizer.forCurrentThread().reset(line);
 		Boolean status;
-		if (rowData[6].trim().equalsIgnoreCase("null") || rowData[6].trim().isEmpty()) {
+		String statusField = rowData.getTrimmed(6);
+		if (statusField.equalsIgnoreCase("null") || statusField.isEmpty()) {
 			status = null;
 		} else {
-			status = Boolean.valueOf(rowData[6]);
+			status = rowData.getBoolean(6);
 		}
 		CompanyRepresentative cr;
-		if (rowData.length > 7 && rowData[7] != null && !rowData[7].isEmpty()) {
-		    // rowData[7] exists and has a value
+		if (rowData.count() > 7 && rowData.field(7).length() > 0) {
+		    // field 7 exists and has a value
 		    cr = new CompanyRepresentative(
-		            rowData[0], rowData[1], rowData[2], rowData[3],
-		            rowData[4],rowData[5], status, rowData[7]
+		            rowData.getString(0), rowData.getString(1), rowData.getString(2), rowData.getString(3),
+		            rowData.getString(4), rowData.getString(5), status, rowData.getString(7)
 		    );
 		} else {
-		    // rowData[7] is missing or empty → use another function
+		    // field 7 is missing or empty → use another function
 			 cr = new CompanyRepresentative(
-			            rowData[0], rowData[1], rowData[2], rowData[3],
-			            rowData[4], rowData[5], status);
+			            rowData.getString(0), rowData.getString(1), rowData.getString(2), rowData.getString(3),
+			            rowData.getString(4), rowData.getString(5), status);
 		}
 		return cr;
 	}
@@ -61,7 +75,7 @@ public class CompanyRepresentativeSerializer implements Serializer<CompanyRepres
 	 * @return a string that is comma delimited for csv file
 	 */
 	public String serialize(CompanyRepresentative cr) {
-		String line = cr.getID() + "," + cr.getUserName() + "," + cr.getCompanyName() + "," + cr.getDepartment() + "," + cr.getPosition() + "," + cr.getEmail() + "," + String.valueOf(cr.isApproved()) + "," + cr.getPassword();
+		String line = CsvTokenizer.escape(cr.getID()) + "," + CsvTokenizer.escape(cr.getUserName()) + "," + CsvTokenizer.escape(cr.getCompanyName()) + "," + CsvTokenizer.escape(cr.getDepartment()) + "," + CsvTokenizer.escape(cr.getPosition()) + "," + CsvTokenizer.escape(cr.getEmail()) + "," + String.valueOf(cr.isApproved()) + "," + CsvTokenizer.escape(cr.getPassword());
 		return line;
 	}
 	
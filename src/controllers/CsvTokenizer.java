@@ -0,0 +1,226 @@
+package controllers;
+
+import java.nio.CharBuffer;
+import java.time.LocalDate;
+import java.util.Arrays;
+import models.DateCodec;
+
+/**
+ * Splits one comma delimited row into fields without copying the row.<br>
+ * The tokenizer only records where each field starts and ends in the given {@link CharSequence};
+ * a {@code String} is created only when a field value is actually requested.<br>
+ * Fields may be quoted to contain commas, with a doubled quote standing for a quote character, e.g.
+ * {@code "Build APIs, dashboards and ""tools"""}. Use {@link #escape(String)} to write such fields.<br>
+ * Instances are reusable but not thread safe, use {@link #forCurrentThread()} to share one per thread.
+ */
+public class CsvTokenizer {
+    private static final ThreadLocal<CsvTokenizer> LOCAL = ThreadLocal.withInitial(CsvTokenizer::new);
+    private static final char DELIMITER = ',';
+    private static final char QUOTE = '"';
+
+    private CharSequence line;
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    // Whether a quoted field contains doubled quotes that must be collapsed when read
+    private boolean[] escaped = new boolean[16];
+    private int count;
+
+    /**
+     * Obtain the tokenizer owned by the calling thread
+     * @return a reusable tokenizer
+     */
+    public static CsvTokenizer forCurrentThread() {
+        return LOCAL.get();
+    }
+
+    /**
+     * Quote a value for a CSV row if it contains a comma or a quote
+     * @param value the field value, may be null
+     * @return the value itself when no quoting is needed, otherwise the quoted value
+     */
+    public static String escape(String value) {
+        if (value == null || !needsQuoting(value)) return value;
+        StringBuilder sb = new StringBuilder(value.length() + 8);
+        appendEscaped(sb, value);
+        return sb.toString();
+    }
+
+    /**
+     * Append a value to a CSV row, quoting it if it contains a comma or a quote
+     * @param sb the row being built
+     * @param value the field value, appended as "null" if null
+     */
+    public static void appendEscaped(StringBuilder sb, String value) {
+        if (value == null || !needsQuoting(value)) {
+            sb.append(value);
+            return;
+        }
+        sb.append(QUOTE);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == QUOTE) sb.append(QUOTE);
+            sb.append(c);
+        }
+        sb.append(QUOTE);
+    }
+
+    private static boolean needsQuoting(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == DELIMITER || c == QUOTE) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Tokenize a new row, replacing the fields of the previous one.<br>
+     * An unterminated quoted field extends to the end of the row.
+     * @param line the row to split
+     * @return this tokenizer, for chaining
+     */
+    public CsvTokenizer reset(CharSequence line) {
+        this.line = line;
+        this.count = 0;
+        int length = line.length();
+        int i = 0;
+        while (true) {
+            if (i < length && line.charAt(i) == QUOTE) {
+                int start = i + 1;
+                boolean hasEscapes = false;
+                i = start;
+                while (i < length) {
+                    if (line.charAt(i) == QUOTE) {
+                        if (i + 1 < length && line.charAt(i + 1) == QUOTE) {
+                            hasEscapes = true;
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                addField(start, i, hasEscapes);
+                // Skip the closing quote and anything up to the next delimiter
+                while (i < length && line.charAt(i) != DELIMITER) i++;
+            } else {
+                int start = i;
+                while (i < length && line.charAt(i) != DELIMITER) i++;
+                addField(start, i, false);
+            }
+            if (i >= length) break;
+            i++; // Delimiter
+        }
+        return this;
+    }
+
+    private void addField(int start, int end, boolean hasEscapes) {
+        if (count == starts.length) {
+            starts = Arrays.copyOf(starts, count * 2);
+            ends = Arrays.copyOf(ends, count * 2);
+            escaped = Arrays.copyOf(escaped, count * 2);
+        }
+        starts[count] = start;
+        ends[count] = end;
+        escaped[count] = hasEscapes;
+        count++;
+    }
+
+    /**
+     * @return number of fields in the current row
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * View of a field without its quotes, backed by the row.<br>
+     * Only a field containing escaped quotes is copied, to collapse them.
+     * @param index index of the field
+     * @return the characters of the field
+     */
+    public CharSequence field(int index) {
+        checkIndex(index);
+        if (escaped[index]) return getString(index);
+        return CharBuffer.wrap(line, starts[index], ends[index]);
+    }
+
+    /**
+     * @param index index of the field
+     * @return the field value as a String
+     */
+    public String getString(int index) {
+        checkIndex(index);
+        String raw = line.subSequence(starts[index], ends[index]).toString();
+        return escaped[index] ? raw.replace("\"\"", "\"") : raw;
+    }
+
+    /**
+     * @param index index of the field
+     * @return the field value as a String without leading and trailing whitespace
+     */
+    public String getTrimmed(int index) {
+        checkIndex(index);
+        int start = starts[index];
+        int end = ends[index];
+        while (start < end && line.charAt(start) <= ' ') start++;
+        while (end > start && line.charAt(end - 1) <= ' ') end--;
+        String raw = line.subSequence(start, end).toString();
+        return escaped[index] ? raw.replace("\"\"", "\"") : raw;
+    }
+
+    /**
+     * Parse a field as a decimal int without creating a String
+     * @param index index of the field
+     * @return the parsed value
+     * @throws NumberFormatException if the field is not a valid int
+     */
+    public int getInt(int index) {
+        checkIndex(index);
+        return Integer.parseInt(line, starts[index], ends[index], 10);
+    }
+
+    /**
+     * Parse a dd/MM/yyyy field with {@link DateCodec} without creating a String
+     * @param index index of the field
+     * @return the parsed date
+     * @throws java.time.format.DateTimeParseException if the field is not a valid date
+     */
+    public LocalDate getDate(int index) {
+        checkIndex(index);
+        if (escaped[index]) return DateCodec.parse(getString(index));
+        return DateCodec.parse(line, starts[index], ends[index]);
+    }
+
+    /**
+     * Parse a field as a boolean, matching {@link Boolean#parseBoolean(String)}
+     * @param index index of the field
+     * @return true only if the field is "true", ignoring case
+     */
+    public boolean getBoolean(int index) {
+        return equalsIgnoreCase(index, "true");
+    }
+
+    /**
+     * Compare a field with a value without creating a String
+     * @param index index of the field
+     * @param value the value to compare with
+     * @return true if the field has the same characters as the value, ignoring case
+     */
+    public boolean equalsIgnoreCase(int index, String value) {
+        checkIndex(index);
+        int start = starts[index];
+        if (ends[index] - start != value.length()) return false;
+        for (int i = 0; i < value.length(); i++) {
+            char a = line.charAt(start + i);
+            char b = value.charAt(i);
+            if (a != b && Character.toLowerCase(a) != Character.toLowerCase(b)) return false;
+        }
+        return true;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= count) {
+            throw new ArrayIndexOutOfBoundsException("Index " + index + " out of bounds for " + count + " fields");
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package controllers;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Abstraction for persistence layer.<br>
@@ -13,9 +15,29 @@ public interface DataPersistence<T>{
      */
     List<T> load();
 
+    /**
+     * Load data from persistent storage, handing each entity to the consumer as it is read<br>
+     * Implementations backed by large files should override this to avoid building an intermediate list.
+     * @param consumer receives every loaded entity in storage order
+     */
+    default void load(Consumer<? super T> consumer) {
+        load().forEach(consumer);
+    }
+
     /**
      * Save data to persistent storage
      * @param internships List of internships to persist
      */
     void save(List<T> internships);
+
+    /**
+     * Save only what changed since the last save<br>
+     * The default rewrites everything, implementations that can persist individual entities should override this.
+     * @param all every entity currently held, used when a full rewrite is needed
+     * @param changed entities added or modified since the last save
+     * @param deletedKeys keys of entities deleted since the last save
+     */
+    default void saveChanges(List<T> all, Collection<T> changed, Collection<String> deletedKeys) {
+        save(all);
+    }
 }
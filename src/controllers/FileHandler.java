@@ -1,9 +1,32 @@
 package controllers;
-import java.io.File;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.PrintWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
-import java.util.Scanner;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Handles reading and writing serialized entities to a file. 
@@ -14,8 +37,19 @@ import java.util.Scanner;
  * @author KaiQiang
  */
 public class FileHandler<T>{
+	// Large read buffer so big entity files are read in few system calls
+	private static final int READ_BUFFER_SIZE = 1 << 16;
+	// Files smaller than this are not worth splitting across threads
+	private static final int PARALLEL_THRESHOLD = 1 << 20;
+	private static final int MIN_CHUNK_SIZE = 1 << 16;
+	// Large write buffer so big entity files are written in few system calls
+	private static final int WRITE_BUFFER_SIZE = 1 << 18;
+	// Rows are collected in one reused builder and handed to the writer once it holds this many chars
+	private static final int ROW_BATCH_SIZE = 1 << 14;
+
 	private Serializer<T> serializer;
 	private String filePath;
+	private final boolean parallel;
 	
 	
 	/**
@@ -24,8 +58,20 @@ public class FileHandler<T>{
 	 * @param serializer the serializer used for converting entities
 	 */
 	public FileHandler(Serializer<T> serializer){
+		this(serializer, false);
+	}
+	
+	
+	/**
+	 * Creates a new instance of FileHandler using the given serializer that is specific to the entity
+	 * 
+	 * @param serializer the serializer used for converting entities
+	 * @param parallel true to deserialise large files on multiple threads, see {@link #readFromFileParallel(Consumer)}
+	 */
+	public FileHandler(Serializer<T> serializer, boolean parallel){
 		this.serializer = serializer;
 		this.filePath = serializer.getFilePath();
+		this.parallel = parallel;
 	}
 	
 	
@@ -36,41 +82,274 @@ public class FileHandler<T>{
 	 */
 	public ArrayList<T> readFromFile() {
 		ArrayList<T> arrayList = new ArrayList<>();
-		try(Scanner sc = new Scanner(new File(filePath))){
-			// Skip header line if present
-			if(sc.hasNextLine()) {
-				sc.nextLine();
+		readFromFile(arrayList::add);
+		return arrayList;
+	}
+	
+	
+	/**
+	 * Read line by line from a file, ignoring the header line, and hand each entity to the consumer<br>
+	 * as soon as it has been deserialised so that no intermediate list is built.
+	 *
+	 * @param consumer receives every entity in file order
+	 */
+	public void readFromFile(Consumer<? super T> consumer) {
+		if(parallel) {
+			readFromFileParallel(consumer);
+		}
+		else {
+			readSequentially(consumer);
+		}
+	}
+	
+	
+	private void readSequentially(Consumer<? super T> consumer) {
+		try(Stream<T> entities = streamFromFile()){
+			entities.forEach(consumer);
+		}
+	}
+	
+	
+	/**
+	 * Read the file on the common ForkJoin pool, ignoring the header line.<br>
+	 * The file is memory-mapped and split into byte ranges aligned to line boundaries, each range is deserialised<br>
+	 * independently and the entities are then handed to the consumer in file order.<br>
+	 * Small files, and files too large to map in one piece, are read sequentially instead.
+	 * 
+	 * @param consumer receives every entity in file order, on the calling thread
+	 */
+	public void readFromFileParallel(Consumer<? super T> consumer) {
+		try(FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)){
+			long size = channel.size();
+			if(size < PARALLEL_THRESHOLD || size > MappedLineScanner.MAX_MAPPED_SIZE) {
+				readSequentially(consumer);
+				return;
 			}
-			while(sc.hasNextLine()) {
-				String line = sc.nextLine();
-				// skip blank/empty lines to avoid malformed deserialization
-				if (line == null || line.trim().isEmpty()) continue;
-				T returnedEntity = serializer.deserialize(line);
-				if (returnedEntity != null) arrayList.add(returnedEntity);
+			MappedByteBuffer buffer = MappedLineScanner.map(channel);
+			int limit = (int) size;
+			int start = MappedLineScanner.nextLineStart(buffer, 0, limit);
+			int chunks = Math.max(1, Math.min(ForkJoinPool.commonPool().getParallelism() * 4, (limit - start) / MIN_CHUNK_SIZE));
+			
+			int[] bounds = new int[chunks + 1];
+			bounds[0] = start;
+			bounds[chunks] = limit;
+			for(int k = 1; k < chunks; k++) {
+				int target = start + (int) ((long) (limit - start) * k / chunks);
+				bounds[k] = MappedLineScanner.nextLineStart(buffer, Math.max(target, bounds[k - 1]), limit);
+			}
+			
+			List<List<T>> parts = new ArrayList<>(chunks);
+			for(int k = 0; k < chunks; k++) {
+				parts.add(new ArrayList<>());
 			}
+			ForkJoinPool.commonPool().invoke(new ChunkTask<>(serializer, buffer, bounds, parts, 0, chunks));
+			for(List<T> part: parts) {
+				part.forEach(consumer);
+			}
+		}
+		catch (NoSuchFileException e) {
+			// Nothing persisted yet
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	
+	/**
+	 * Lazily streams the entities of the file, ignoring the header line and blank lines.<br>
+	 * The file is read through a large-buffer reader, and the stream must be closed once consumed.
+	 *
+	 * @return a stream of entities deserialised from the file, or an empty stream if the file does not exist
+	 */
+	public Stream<T> streamFromFile() {
+		BufferedReader reader;
+		try {
+			reader = new BufferedReader(new InputStreamReader(new FileInputStream(filePath), StandardCharsets.UTF_8), READ_BUFFER_SIZE);
 		}
 		catch (FileNotFoundException e) {
-			e.getMessage();
+			return Stream.empty();
+		}
+		return reader.lines()
+				.skip(1) // Skip header line if present
+				// skip blank/empty lines to avoid malformed deserialization
+				.filter(line -> !line.isBlank())
+				.map(serializer::deserialize)
+				.filter(Objects::nonNull)
+				.onClose(() -> {
+					try {
+						reader.close();
+					}
+					catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+	}
+	
+	
+	/**
+	 * Deserialises the chunks {@code [from, to)}, splitting the range in half until a single chunk is left
+	 */
+	private static final class ChunkTask<T> extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		
+		private final Serializer<T> serializer;
+		private final MappedByteBuffer buffer;
+		private final int[] bounds;
+		private final List<List<T>> parts;
+		private final int from;
+		private final int to;
+		
+		ChunkTask(Serializer<T> serializer, MappedByteBuffer buffer, int[] bounds, List<List<T>> parts, int from, int to) {
+			this.serializer = serializer;
+			this.buffer = buffer;
+			this.bounds = bounds;
+			this.parts = parts;
+			this.from = from;
+			this.to = to;
+		}
+		
+		@Override
+		protected void compute() {
+			if(to - from > 1) {
+				int mid = (from + to) >>> 1;
+				invokeAll(new ChunkTask<>(serializer, buffer, bounds, parts, from, mid), new ChunkTask<>(serializer, buffer, bounds, parts, mid, to));
+				return;
+			}
+			List<T> part = parts.get(from);
+			MappedLineScanner.forEachLine(buffer.duplicate(), bounds[from], bounds[from + 1], line -> {
+				T entity = serializer.deserialize(line);
+				if (entity != null) part.add(entity);
+			});
 		}
-		return arrayList;
 	}
 	
 	
 	/**
-	 * Writes line by line to the same filepath including the header
+	 * Writes line by line to the same filepath including the header.<br>
+	 * The rows are written to a temporary file in the same directory and forced to disk, which is then atomically<br>
+	 * moved over the target. A crash or full disk in the middle of a save leaves the previous file untouched.<br>
+	 * Each row is appended to one reused builder with {@link Serializer#serialize(Object, StringBuilder)} and copied<br>
+	 * in batches into a large buffered writer, so no String is created per row.
 	 * 
-	 * @param arrayList takes in an array list of the entity to be written back to the file including
+	 * @param arrayList takes in a list of the entity to be written back to the file including
+	 * @throws UncheckedIOException if the file could not be written, the previous contents are kept
 	 */
-	public void writeToFile(ArrayList<T> arrayList) {
-		try(PrintWriter pw = new PrintWriter(filePath)){
-			pw.println(serializer.getHeader());
-			
-			for(T u: arrayList) {
-				pw.println(serializer.serialize(u));
+	public void writeToFile(List<T> arrayList) {
+		Path target = Path.of(filePath).toAbsolutePath();
+		Path directory = target.getParent();
+		Path temp = null;
+		try {
+			Files.createDirectories(directory);
+			temp = createTempFileFor(target);
+			try(FileOutputStream out = new FileOutputStream(temp.toFile());
+					Writer writer = new OutputStreamWriter(new BufferedOutputStream(out, WRITE_BUFFER_SIZE), StandardCharsets.UTF_8)){
+				String newLine = System.lineSeparator();
+				StringBuilder sb = new StringBuilder(ROW_BATCH_SIZE * 2);
+				char[] chars = new char[ROW_BATCH_SIZE * 2];
+				sb.append(serializer.getHeader()).append(newLine);
+				
+				for(T u: arrayList) {
+					serializer.serialize(u, sb);
+					sb.append(newLine);
+					if(sb.length() >= ROW_BATCH_SIZE) {
+						chars = drain(sb, chars, writer);
+					}
+				}
+				drain(sb, chars, writer);
+				// Unlike PrintWriter, write errors are thrown rather than swallowed
+				writer.flush();
+				out.getFD().sync();
 			}
+			moveAtomically(temp, target);
+			syncDirectory(directory);
 		}
-		catch (FileNotFoundException e) {
-			e.getMessage();
+		catch (IOException e) {
+			deleteQuietly(temp);
+			throw new UncheckedIOException("Could not save " + filePath, e);
+		}
+	}
+	
+	
+	/**
+	 * Copy the rows collected in the builder to the writer and empty the builder
+	 * @return the copy buffer, grown if the rows did not fit
+	 */
+	private static char[] drain(StringBuilder sb, char[] chars, Writer writer) throws IOException {
+		int length = sb.length();
+		if(chars.length < length) {
+			chars = new char[length];
+		}
+		sb.getChars(0, length, chars, 0);
+		writer.write(chars, 0, length);
+		sb.setLength(0);
+		return chars;
+	}
+	
+	
+	/**
+	 * Create an empty temporary file next to the target, carrying over the permissions of an existing target<br>
+	 * so that replacing the file does not change who can read it. A new file gets the default permissions, unlike<br>
+	 * {@link Files#createTempFile} which makes it readable by the owner only.
+	 */
+	static Path createTempFileFor(Path target) throws IOException {
+		String prefix = target.getFileName().toString() + ".";
+		Path temp;
+		while(true) {
+			temp = target.resolveSibling(prefix + Long.toUnsignedString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+			try {
+				Files.createFile(temp);
+				break;
+			}
+			catch (FileAlreadyExistsException e) {
+				// Name taken, try another
+			}
+		}
+		if(Files.exists(target)) {
+			try {
+				Files.setPosixFilePermissions(temp, Files.getPosixFilePermissions(target));
+			}
+			catch (UnsupportedOperationException e) {
+				// Not a POSIX file system, the default permissions apply
+			}
+		}
+		return temp;
+	}
+	
+	
+	/**
+	 * Move a fully written temporary file over the target, atomically where the platform supports it
+	 */
+	static void moveAtomically(Path source, Path target) throws IOException {
+		try {
+			Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		}
+		catch (AtomicMoveNotSupportedException e) {
+			Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+	
+	
+	/**
+	 * Force the directory entry of the rename to disk. Not every platform can open a directory, so this is best effort.
+	 */
+	static void syncDirectory(Path directory) {
+		try(FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)){
+			channel.force(true);
+		}
+		catch (IOException e) {
+			// Not supported on this platform
+		}
+	}
+	
+	
+	static void deleteQuietly(Path path) {
+		if(path == null) return;
+		try {
+			Files.deleteIfExists(path);
+		}
+		catch (IOException e) {
+			// The temporary file is only garbage at this point
 		}
 	}
 
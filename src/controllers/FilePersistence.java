@@ -0,0 +1,41 @@
+package controllers;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Concrete implementation from DataPersistence that reads and writes a CSV file through {@link FileHandler}. @see DataPersistence for more information on methods<br>
+ * Decouples Manager from FileHandler implementation.
+ *
+ * @param <T> the type of entity persisted
+ */
+public class FilePersistence<T> implements DataPersistence<T> {
+    private final FileHandler<T> fileHandler;
+
+    public FilePersistence(Serializer<T> serializer) {
+        this(serializer, false);
+    }
+
+    /**
+     * @param serializer the serializer of the entity, which also provides the file path
+     * @param parallel true to deserialize large files on multiple threads
+     */
+    public FilePersistence(Serializer<T> serializer, boolean parallel) {
+        this.fileHandler = new FileHandler<>(serializer, parallel);
+    }
+
+    @Override
+    public List<T> load() {
+        return fileHandler.readFromFile();
+    }
+
+    @Override
+    public void load(Consumer<? super T> consumer) {
+        fileHandler.readFromFile(consumer);
+    }
+
+    @Override
+    public void save(List<T> entities) {
+        fileHandler.writeToFile(entities);
+    }
+}
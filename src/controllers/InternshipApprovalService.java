@@ -21,16 +21,17 @@ public class InternshipApprovalService {
      * @return true if successful, false if internship not found or not in PENDING state
      */
     public boolean approveListing(String internshipId) {
-        Internship internship = repository.findById(internshipId);
-        if (internship == null) {
+        // The status is checked and changed in one step, so two staff cannot both act on the same listing
+        boolean found = repository.modify(internshipId, internship -> {
+            if (internship.getStatus() != InternshipStatus.PENDING) {
+                throw new InvalidStateException("Only pending internships can be approved. Current status: " + internship.getStatus());
+            }
+            internship.setStatus(InternshipStatus.APPROVED);
+            return true;
+        });
+        if (!found) {
             throw new InternshipNotFoundException("Internship listing not found: " + internshipId);
         }
-
-        if (internship.getStatus() != InternshipStatus.PENDING) {
-            throw new InvalidStateException("Only pending internships can be approved. Current status: " + internship.getStatus());
-        }
-
-        internship.setStatus(InternshipStatus.APPROVED);
         return true;
     }
 
@@ -40,16 +41,17 @@ public class InternshipApprovalService {
      * @return true if successful, false if internship not found or not in PENDING state
      */
     public boolean rejectListing(String internshipId) {
-        Internship internship = repository.findById(internshipId);
-        if (internship == null) {
+        // The status is checked and changed in one step, so two staff cannot both act on the same listing
+        boolean found = repository.modify(internshipId, internship -> {
+            if (internship.getStatus() != InternshipStatus.PENDING) {
+                throw new InvalidStateException("Only pending internships can be rejected. Current status: " + internship.getStatus());
+            }
+            internship.setStatus(InternshipStatus.REJECTED);
+            return true;
+        });
+        if (!found) {
             throw new InternshipNotFoundException("Internship listing not found: " + internshipId);
         }
-
-        if (internship.getStatus() != InternshipStatus.PENDING) {
-            throw new InvalidStateException("Only pending internships can be rejected. Current status: " + internship.getStatus());
-        }
-
-        internship.setStatus(InternshipStatus.REJECTED);
         return true;
     }
 
@@ -59,11 +61,13 @@ public class InternshipApprovalService {
      * @param newStatus The new status to set
      */
     public void changeStatus(String internshipId, InternshipStatus newStatus) {
-        Internship internship = repository.findById(internshipId);
-        if (internship == null) {
+        boolean found = repository.modify(internshipId, internship -> {
+            internship.setStatus(newStatus);
+            return true;
+        });
+        if (!found) {
             throw new InternshipNotFoundException("Internship listing not found: " + internshipId);
         }
-        internship.setStatus(newStatus);
     }
 
     /**
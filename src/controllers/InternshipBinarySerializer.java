@@ -0,0 +1,74 @@
+package controllers;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDate;
+import models.Internship;
+import models.Internship.InternshipLevel;
+import models.Internship.InternshipStatus;
+
+/**
+ * Implements the binary snapshot format of the Internship entity
+ * <p>
+ * 
+ * Fields are written in the same order as the CSV columns of {@link InternshipSerializer}, with the level and status<br>
+ * as enum ordinals and the opening and closing dates as epoch days.
+ * 
+ */
+public class InternshipBinarySerializer implements BinarySerializer<Internship> {
+	
+	private static final InternshipLevel[] LEVELS = InternshipLevel.values();
+	private static final InternshipStatus[] STATUSES = InternshipStatus.values();
+
+	@Override
+	public void write(DataOutput out, Internship internship) throws IOException {
+		BinarySerializer.writeString(out, internship.getInternshipID());
+		BinarySerializer.writeString(out, internship.getTitle());
+		BinarySerializer.writeString(out, internship.getDescription());
+		out.writeByte(internship.getLevel().ordinal());
+		BinarySerializer.writeString(out, internship.getPreferredMajor());
+		out.writeInt((int) internship.getOpeningDate().toEpochDay());
+		out.writeInt((int) internship.getClosingDate().toEpochDay());
+		out.writeByte(internship.getStatus().ordinal());
+		BinarySerializer.writeString(out, internship.getCompanyName());
+		BinarySerializer.writeString(out, internship.getCompanyRepId());
+		out.writeInt(internship.getTotalSlots());
+		out.writeInt(internship.getAvailableSlots());
+		out.writeInt(internship.getConfirmedSlots());
+		out.writeBoolean(internship.isVisible());
+	}
+	
+	@Override
+	public Internship read(DataInput in) throws IOException {
+		String id = BinarySerializer.readString(in);
+		String title = BinarySerializer.readString(in);
+		String description = BinarySerializer.readString(in);
+		InternshipLevel level = LEVELS[in.readUnsignedByte()];
+		String preferredMajor = BinarySerializer.readString(in);
+		LocalDate openingDate = LocalDate.ofEpochDay(in.readInt());
+		LocalDate closingDate = LocalDate.ofEpochDay(in.readInt());
+		InternshipStatus status = STATUSES[in.readUnsignedByte()];
+		String companyName = BinarySerializer.readString(in);
+		String companyRepId = BinarySerializer.readString(in);
+		int totalSlots = in.readInt();
+		int availableSlots = in.readInt();
+		int confirmedSlots = in.readInt();
+		boolean visible = in.readBoolean();
+		if (!Internship.isValidSlotCount(totalSlots) || !Internship.isValidSlotCount(confirmedSlots)) {
+			throw new IOException("Invalid slot counts for internship " + id);
+		}
+		return new Internship(id, title, description, level, preferredMajor, openingDate, closingDate, status,
+				companyName, companyRepId, totalSlots, availableSlots, confirmedSlots, visible);
+	}
+	
+	/**
+	 * Obtains the filepath of the Internship snapshot
+	 * 
+	 * @return the string for filepath
+	 */
+	@Override
+	public String getFilePath() {
+		return "assets/testcases/internship_list.bin";
+	}
+}
@@ -0,0 +1,23 @@
+package controllers;
+
+import models.Internship;
+
+/**
+ * A secondary index over internships kept up to date by the {@link InternshipRepository} it is registered with.<br>
+ * The repository calls the index while it holds the change of that internship, so calls for the same internship
+ * never overlap. Calls for different internships may run at the same time.
+ */
+public interface InternshipIndex {
+
+    /**
+     * An internship was added, or its fields may have changed
+     * @param internship the internship in its current state
+     */
+    void upsert(Internship internship);
+
+    /**
+     * An internship was deleted or replaced by another instance
+     * @param internship the internship that is no longer in the repository
+     */
+    void remove(Internship internship);
+}
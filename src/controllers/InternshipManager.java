@@ -12,19 +12,31 @@ import models.Internship.InternshipStatus;
  * Depends on interfaces, not concrete implementations (Dependency Inversion).
  */
 public class InternshipManager {
+    private static final String LISTING_ID_PREFIX = "INT";
+
     private InternshipRepository repository;
     private InternshipApprovalService approvalService;
     private InternshipQueryService queryService;
     private ListingPolicy listingPolicy;
 
     public InternshipManager() {
-        DataPersistence<Internship> persistence = new FileInternshipPersistence();
-        this.repository = new InternshipRepository(persistence);
+        this.repository = new InternshipRepository(createPersistence());
         this.approvalService = new InternshipApprovalService(repository);
         this.queryService = new InternshipQueryService(repository);
         this.listingPolicy = new StandardListingPolicy();
     }
 
+    /**
+     * Persistence of the internships: the binary snapshot when it is current, otherwise the CSV file,
+     * with the change log replayed on top
+     */
+    static DataPersistence<Internship> createPersistence() {
+        InternshipSerializer serializer = new InternshipSerializer();
+        return new ChangeLogPersistence<>(
+            new SnapshotFilePersistence<>(new FileInternshipPersistence(), serializer.getFilePath(), new InternshipBinarySerializer()),
+            serializer, Internship::getInternshipID);
+    }
+
     /**
      * Constructor for testing or custom configurations
      */
@@ -82,7 +94,10 @@ public class InternshipManager {
                 openingDate, closingDate, companyName, companyRepId, totalSlots
             );
 
-            repository.add(internship);
+            if (!repository.add(internship)) {
+                System.out.println("Error: An internship with ID " + listingId + " already exists.");
+                return null;
+            }
             System.out.println("Internship created successfully! ID: " + internship.getInternshipID());
             return internship;
 
@@ -92,6 +107,24 @@ public class InternshipManager {
         }
     }
 
+    /**
+     * Next free listing ID, one more than the highest number of an existing "INT" ID.<br>
+     * Counting the listings instead would reuse the ID of the last listing once an earlier one is deleted.
+     */
+    public String nextListingId() {
+        int highest = 0;
+        for (Internship internship : repository.getAll()) {
+            String id = internship.getInternshipID();
+            if (id == null || !id.startsWith(LISTING_ID_PREFIX)) continue;
+            try {
+                highest = Math.max(highest, Integer.parseInt(id.substring(LISTING_ID_PREFIX.length())));
+            } catch (NumberFormatException e) {
+                // Not a generated ID
+            }
+        }
+        return LISTING_ID_PREFIX + String.format("%04d", highest + 1);
+    }
+
     /**
      * Find internship by ID
      */
@@ -111,6 +144,24 @@ public class InternshipManager {
         }
     }
 
+    /**
+     * Commit an edited copy of an internship, unless it was changed by someone else since the copy was taken
+     * @param editedInternship edited copy of the internship
+     * @param expectedVersion version of the internship the copy was taken from
+     * @return true if the edit was committed
+     */
+    public boolean updateInternship(Internship editedInternship, long expectedVersion) {
+        try {
+            return repository.update(editedInternship, expectedVersion);
+        } catch (VersionConflictException e) {
+            System.out.println("Error: This listing was changed by someone else while you were editing it. Please try again.");
+            return false;
+        } catch (Exception e) {
+            System.out.println("Error updating internship: " + e.getMessage());
+            return false;
+        }
+    }
+
     /**
      * Change the status of listing, using @see InternshipApprovalService
      */
@@ -129,6 +180,13 @@ public class InternshipManager {
         return queryService.getPendingInternships();
     }
 
+    /**
+     * Get one page of the pending internships, using @see InternshipQueryService
+     */
+    public Page<Internship> getPendingInternships(int offset, int limit) {
+        return queryService.getPendingInternships(offset, limit);
+    }
+
     /**
      * Get count of internships by representative
      */
@@ -137,7 +195,21 @@ public class InternshipManager {
     }
 
     /**
-     * Get all internships
+     * Get count of internships in a status, using @see InternshipQueryService
+     */
+    public int getInternshipCountByStatus(InternshipStatus status) {
+        return queryService.countByStatus(status);
+    }
+
+    /**
+     * Get count of all internships, using @see InternshipQueryService
+     */
+    public int getInternshipCount() {
+        return queryService.countAll();
+    }
+
+    /**
+     * Get all internships as a read-only list
      */
     public List<Internship> getAllInternships() {
         return repository.getAll();
@@ -151,7 +223,7 @@ public class InternshipManager {
     }
 
     /**
-     * Get visible internships for students, using @see InternshipQueryService
+     * Get visible internships for students as a read-only list, using @see InternshipQueryService
      */
     public List<Internship> getVisibleInternshipsForStudent(int yearOfStudy, String major) {
         return queryService.getVisibleInternshipsForStudent(yearOfStudy, major);
@@ -204,13 +276,23 @@ public class InternshipManager {
                 return false;
             }
 
-            if (internship.isVisible()) {
-                internship.setInvisible();
-                System.out.println("Visibility toggled. Now: Hidden");
-            } else {
-                internship.setVisible();
-                System.out.println("Visibility toggled. Now: Visible");
+            // Re-checked atomically, the listing may have been changed since it was read
+            boolean[] nowVisible = new boolean[1];
+            boolean toggled = repository.modify(internshipId, i -> {
+                if (i.getStatus() != InternshipStatus.APPROVED) return false;
+                if (i.isVisible()) {
+                    i.setInvisible();
+                } else {
+                    i.setVisible();
+                }
+                nowVisible[0] = i.isVisible();
+                return true;
+            });
+            if (!toggled) {
+                System.out.println("Error: Internship must be approved before changing visibility.");
+                return false;
             }
+            System.out.println("Visibility toggled. Now: " + (nowVisible[0] ? "Visible" : "Hidden"));
             return true;
 
         } catch (Exception e) {
@@ -221,15 +303,14 @@ public class InternshipManager {
 
     /**
      * Update internship when slot is confirmed 
+     * @return true if a slot was confirmed, false if the internship was not found or has no slot left
      */
-    public void updateListingOnConfirmation(String internshipId) {
+    public boolean updateListingOnConfirmation(String internshipId) {
         try {
-            Internship internship = repository.findById(internshipId);
-            if (internship != null) {
-                internship.confirmSlot();  // Domain logic encapsulated in Internship
-            }
+            return repository.modify(internshipId, Internship::confirmSlot);  // Domain logic encapsulated in Internship
         } catch (Exception e) {
             System.out.println("Error confirming slot: " + e.getMessage());
+            return false;
         }
     }
 
@@ -238,10 +319,10 @@ public class InternshipManager {
      */
     public void updateListingOnWithdrawal(String internshipId) {
         try {
-            Internship internship = repository.findById(internshipId);
-            if (internship != null) {
+            repository.modify(internshipId, internship -> {
                 internship.withdrawSlot();  // Domain logic encapsulated in Internship
-            }
+                return true;
+            });
         } catch (Exception e) {
             System.out.println("Error withdrawing slot: " + e.getMessage());
         }
@@ -270,7 +351,11 @@ public class InternshipManager {
                 return false;
             }
 
-            repository.delete(internshipId);
+            // A placement may have been confirmed since the check above
+            if (!repository.delete(internshipId, i -> i.getConfirmedSlots() == 0)) {
+                System.out.println("Error: Cannot delete internship with confirmed placements.");
+                return false;
+            }
             System.out.println("Internship deleted successfully.");
             return true;
 
@@ -291,6 +376,19 @@ public class InternshipManager {
         return queryService.filterInternships(status, level, major, companyName);
     }
 
+    /**
+     * Get one page of filtered internships, using @see InternshipQueryService
+     */
+    public Page<Internship> filterInternships(
+            InternshipStatus status,
+            InternshipLevel level,
+            String major,
+            String companyName,
+            int offset,
+            int limit) {
+        return queryService.filterInternships(status, level, major, companyName, offset, limit);
+    }
+
     /**
      * Search internships, using @see InternshipQueryService
      */
@@ -298,14 +396,32 @@ public class InternshipManager {
         return queryService.search(keyword, baseList);
     }
 
+    /**
+     * Keep the internships of a list from companies matching a name, using @see InternshipQueryService
+     */
+    public List<Internship> filterByCompany(String companyName, List<Internship> baseList) {
+        return queryService.filterByCompany(companyName, baseList);
+    }
+
     /**
      * Save to file, using @see InternshipRepository
      */
     public void saveToFile() {
+        saveChanges();
+    }
+
+    /**
+     * Durably save the internships changed since the last save, such as the slot taken by a placement.<br>
+     * Only the changes are written, see @see ChangeLogPersistence, so this is cheap enough to call after each placement.
+     * @return true if the changes were saved
+     */
+    public boolean saveChanges() {
         try {
             repository.save();
+            return true;
         } catch (Exception e) {
             System.out.println("Error saving internships: " + e.getMessage());
+            return false;
         }
     }
 }
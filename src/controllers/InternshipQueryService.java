@@ -1,8 +1,11 @@
 package controllers;
 
-import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import models.Internship;
 import models.Internship.InternshipLevel;
 import models.Internship.InternshipStatus;
@@ -13,69 +16,197 @@ import models.Internship.InternshipStatus;
  */
 public class InternshipQueryService {
     private InternshipRepository repository;
+    private final KeywordIndex keywordIndex = new KeywordIndex();
+    private final TrigramIndex companyNameIndex = new TrigramIndex(Internship::getCompanyName);
+    private final BitmapIndex filterIndex = new BitmapIndex();
+    private final TitleOrderIndex titleIndex = new TitleOrderIndex();
+    private final StudentFeedCache feedCache = new StudentFeedCache(this::computeVisibleInternships);
+    private final OpenWindowIndex openWindows = new OpenWindowIndex(feedCache::windowChanged);
+    private final InternshipStatusCounts statusCounts = new InternshipStatusCounts();
 
     public InternshipQueryService(InternshipRepository repository) {
         this.repository = repository;
+        repository.addIndex(keywordIndex);
+        repository.addIndex(companyNameIndex);
+        repository.addIndex(filterIndex);
+        repository.addIndex(titleIndex);
+        repository.addIndex(openWindows);
+        repository.addIndex(statusCounts);
+        // Registered after the indexes its feeds are computed from, so a feed dropped on a change is recomputed from the new state
+        repository.addIndex(feedCache);
+        openWindows.startClock();
     }
 
     /**
      * Get internships pending approval (for staff review)
      */
     public List<Internship> getPendingInternships() {
-        return repository.getAll().stream()
-            .filter(i -> i.getStatus() == InternshipStatus.PENDING)
-            .sorted(Comparator.comparing(Internship::getTitle))
-            .collect(Collectors.toList());
+        return pendingInternships().collect(Collectors.toList());
+    }
+
+    /**
+     * Get one page of the internships pending approval, evaluating no more than the page needs
+     */
+    public Page<Internship> getPendingInternships(int offset, int limit) {
+        return Page.of(pendingInternships(), offset, limit);
+    }
+
+    private Stream<Internship> pendingInternships() {
+        return inTitleOrder(filterIndex.select(InternshipStatus.PENDING, null, null, null, null));
     }
 
     /**
-     * Get internships visible and available for students
+     * Get internships visible and available for students, as a read-only list<br>
+     * Students of the same tier and major share one feed, see @see StudentFeedCache
      */
     public List<Internship> getVisibleInternshipsForStudent(int yearOfStudy, String major) {
-        return repository.getAll().stream()
-            .filter(Internship::isVisible)
-            .filter(i -> !i.isFull())
-            .filter(i -> i.getStatus() == InternshipStatus.APPROVED)
+        // Drops the feeds of listings that opened or closed since midnight, should the clock not have run yet
+        openWindows.catchUp();
+        return feedCache.get(yearOfStudy, major);
+    }
+
+    /**
+     * Compute the feed of a student<br>
+     * The fixed criteria are looked up in @see BitmapIndex and the open listings in @see OpenWindowIndex,
+     * only eligibility is checked per listing.
+     */
+    private List<Internship> computeVisibleInternships(int yearOfStudy, String major) {
+        // A null major matches no listing, but would match every major in the index
+        if (major == null) return List.of();
+        List<Internship> matches = filterIndex.select(InternshipStatus.APPROVED, null, major, true, false);
+        Set<String> open = openWindows.openIds();
+        return inTitleOrder(matches)
+            .filter(i -> open.contains(i.getInternshipID()))
             .filter(i -> i.isStudentEligible(yearOfStudy))
-            .filter(i -> i.isOpenForApplications())
-            .filter(i -> i.getPreferredMajor().equalsIgnoreCase(major))
-            .sorted(Comparator.comparing(Internship::getTitle))
             .collect(Collectors.toList());
     }
 
     /**
-     * Filter internships by multiple criteria
+     * Filter internships by multiple criteria<br>
+     * Status, level and major are looked up in @see BitmapIndex and the company name in @see TrigramIndex.
      */
     public List<Internship> filterInternships(
             InternshipStatus status,
             InternshipLevel level,
             String major,
             String companyName) {
+        return filteredInternships(status, level, major, companyName).collect(Collectors.toList());
+    }
+
+    /**
+     * Get one page of the internships matching multiple criteria, evaluating no more than the page needs
+     */
+    public Page<Internship> filterInternships(
+            InternshipStatus status,
+            InternshipLevel level,
+            String major,
+            String companyName,
+            int offset,
+            int limit) {
+        return Page.of(filteredInternships(status, level, major, companyName), offset, limit);
+    }
+
+    private Stream<Internship> filteredInternships(
+            InternshipStatus status,
+            InternshipLevel level,
+            String major,
+            String companyName) {
         
-        return repository.getAll().stream()
-            .filter(i -> status == null || i.getStatus() == status)
-            .filter(i -> level == null || i.getLevel() == level)
-            .filter(i -> major == null || i.getPreferredMajor().equalsIgnoreCase(major))
-            .filter(i -> companyName == null || i.getCompanyName().toLowerCase().contains(companyName.toLowerCase()))
-            .sorted(Comparator.comparing(Internship::getTitle))
-            .collect(Collectors.toList());
+        if (status == null && level == null && major == null && companyName == null) {
+            return titleIndex.stream();
+        }
+        List<Internship> candidates;
+        if (companyName != null && status == null && level == null && major == null) {
+            candidates = companyNameIndex.match(companyName).stream()
+                .map(repository::findById)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        } else {
+            candidates = filterIndex.select(status, level, major, null, null);
+            if (companyName != null) {
+                Set<String> companyMatches = companyNameIndex.match(companyName);
+                candidates.removeIf(i -> !companyMatches.contains(i.getInternshipID()));
+            }
+        }
+        return inTitleOrder(candidates);
     }
 
     /**
-     * Search internships by keyword in title and description
+     * Search internships by keywords in title and description, ignoring case<br>
+     * Keywords are separated by spaces and all of them must match: each one must be contained in the title or the
+     * description. Candidates are looked up in @see KeywordIndex and then checked for every keyword.
+     * A search without letters or digits keeps the whole list.
      */
     public List<Internship> search(String keyword, List<Internship> baseList) {
-        String searchTerm = keyword.toLowerCase().trim();
+        String[] terms = keyword.toLowerCase().trim().split("\\s+");
+        Set<String> candidates = keywordIndex.match(keyword);
+        if (candidates == null) {
+            return inTitleOrder(baseList).collect(Collectors.toList());
+        }
+        List<Internship> found = baseList.stream()
+            .filter(i -> candidates.contains(i.getInternshipID()))
+            .filter(i -> containsAll(i, terms))
+            .collect(Collectors.toList());
+        
+        return inTitleOrder(found)
+            .collect(Collectors.toList());
+    }
+
+    private static boolean containsAll(Internship internship, String[] lowerCaseTerms) {
+        for (String term : lowerCaseTerms) {
+            if (!contains(internship.getTitle(), term) && !contains(internship.getDescription(), term)) return false;
+        }
+        return true;
+    }
+
+    private static boolean contains(String text, String lowerCaseTerm) {
+        return text != null && text.toLowerCase().contains(lowerCaseTerm);
+    }
+
+    /**
+     * Keep the internships of a list whose company name contains a string, ignoring case
+     */
+    public List<Internship> filterByCompany(String companyName, List<Internship> baseList) {
+        Set<String> matches = companyNameIndex.match(companyName);
         
         return baseList.stream()
-            .filter(i -> i.getTitle().toLowerCase().contains(searchTerm) 
-                    || i.getDescription().toLowerCase().contains(searchTerm))
-            .sorted(Comparator.comparing(Internship::getTitle))
+            .filter(i -> matches.contains(i.getInternshipID()))
             .collect(Collectors.toList());
     }
 
     /**
-     * Get all internships
+     * Put internships in title order, see @see TitleOrderIndex<br>
+     * A few internships are sorted, many are picked out of the index, which is already in order.
+     */
+    private Stream<Internship> inTitleOrder(List<Internship> internships) {
+        int count = internships.size();
+        // Sorting costs about count * log2(count) comparisons, picking costs one lookup per indexed internship
+        if ((long) count * (32 - Integer.numberOfLeadingZeros(count)) < titleIndex.size()) {
+            return titleIndex.sort(internships).stream();
+        }
+        Set<String> ids = new HashSet<>(count * 2);
+        for (Internship internship : internships) {
+            ids.add(internship.getInternshipID());
+        }
+        return titleIndex.stream().filter(i -> ids.contains(i.getInternshipID()));
+    }
+
+    /**
+     * Count internships in a status without visiting them, using @see InternshipStatusCounts
+     */
+    public int countByStatus(InternshipStatus status) {
+        return statusCounts.count(status);
+    }
+
+    /**
+     * Count all internships without visiting them
+     */
+    public int countAll() {
+        return statusCounts.total();
+    }
+
+    /**
+     * Get all internships as a read-only list
      */
     public List<Internship> getAllInternships() {
         return repository.getAll();
@@ -1,98 +1,322 @@
 package controllers;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
 import models.Internship;
 
 /**
  * Repository for internship data access.<br>
  * Handles actions like delete/edit/add internships. <br>
+ * The repository is thread safe. Reads never lock, and every change to one internship, including the
+ * checks before it, runs atomically with respect to other changes of that internship, see {@link #modify}.<br>
+ * Each committed change advances the version of the internship, so edits of a copy can be committed
+ * optimistically with {@link #update(Internship, long)}.<br>
+ * Further indexes can be registered with {@link #addIndex}, they are kept up to date with every change.<br>
  * Single Responsibility: Data access and retrieval only.
  */
 public class InternshipRepository {
-    private ArrayList<Internship> internshipList;
+    // Keyed by internship ID. All indexes of one internship are changed inside a compute on its key
+    private final ConcurrentHashMap<String, Slot> internships = new ConcurrentHashMap<>();
+    // The internships in the order they were added
+    private final ConcurrentSkipListMap<Long, Internship> insertionOrder = new ConcurrentSkipListMap<>();
+    // Listings of each company representative keyed by internship ID, the size is the rep's listing count
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, Slot>> byRepresentative = new ConcurrentHashMap<>();
+    private final List<InternshipIndex> indexes = new CopyOnWriteArrayList<>();
+    private final AtomicLong nextSeq = new AtomicLong();
+    // Incremented after every change, a snapshot is valid while its version is current
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot snapshot = new Snapshot(-1, List.of());
     private DataPersistence<Internship> persistence;
+    // IDs of internships added or changed, and deleted, since the last save, each with a unique stamp of the change
+    private final ConcurrentHashMap<String, Long> dirty = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Long> deletedIds = new ConcurrentHashMap<>();
+    private final AtomicLong changeStamp = new AtomicLong();
+    private final Object saveLock = new Object();
 
     public InternshipRepository(DataPersistence<Internship> persistence) {
         this.persistence = persistence;
-        this.internshipList = new ArrayList<>(persistence.load());
+        persistence.load(internship -> internships.computeIfAbsent(internship.getInternshipID(), id -> insert(internship)));
     }
 
     /**
      * Add a new internship to the repository
+     * @return false if an internship with the same ID already exists, it is then left unchanged
      */
-    public void add(Internship internship) {
-        internshipList.add(internship);
+    public boolean add(Internship internship) {
+        boolean[] added = new boolean[1];
+        internships.computeIfAbsent(internship.getInternshipID(), id -> {
+            added[0] = true;
+            Slot slot = insert(internship);
+            markDirty(id);
+            return slot;
+        });
+        if (added[0]) version.incrementAndGet();
+        return added[0];
     }
 
     /**
      * Find internship by ID
      */
     public Internship findById(String internshipId) {
-        if (internshipList.isEmpty()) {
-            return null;
-        }
-        return internshipList.stream()
-            .filter(i -> i.getInternshipID().equals(internshipId))
-            .findFirst()
-            .orElse(null);
+        if (internshipId == null) return null;
+        Slot slot = internships.get(internshipId);
+        return slot == null ? null : slot.internship;
     }
 
     /**
-     * Update an existing internship
+     * Update an existing internship, keeping its position
      */
     public boolean update(Internship updatedInternship) {
-        Internship existing = findById(updatedInternship.getInternshipID());
-        if (existing == null) {
-            return false;
-        }
-        int index = internshipList.indexOf(existing);
-        internshipList.set(index, updatedInternship);
-        return true;
+        if (updatedInternship.getInternshipID() == null) return false;
+        boolean[] found = new boolean[1];
+        internships.computeIfPresent(updatedInternship.getInternshipID(), (id, previous) -> {
+            found[0] = true;
+            markDirty(id);
+            updatedInternship.incrementVersion();
+            if (previous.internship == updatedInternship) {
+                reindex(updatedInternship);
+                return previous;
+            }
+            remove(previous);
+            Slot slot = new Slot(previous.seq, updatedInternship);
+            index(slot);
+            return slot;
+        });
+        if (found[0]) version.incrementAndGet();
+        return found[0];
+    }
+
+    /**
+     * Commit an edited copy of an internship if no other change was committed since the copy was taken.<br>
+     * The editable fields are published onto the stored internship in one step, so references held elsewhere stay valid
+     * and lock-free readers see either the whole edit or none of it; the indexes follow within the same compute.
+     *
+     * @param edited edited copy of the internship, see {@link Internship#Internship(Internship)}
+     * @param expectedVersion version of the internship the copy was taken from
+     * @return false if there is no such internship
+     * @throws VersionConflictException if the internship was changed since the copy was taken
+     */
+    public boolean update(Internship edited, long expectedVersion) {
+        if (edited.getInternshipID() == null) return false;
+        boolean[] found = new boolean[1];
+        internships.computeIfPresent(edited.getInternshipID(), (id, slot) -> {
+            found[0] = true;
+            Internship stored = slot.internship;
+            // Every committed change runs inside a compute on this key, so the version cannot move in between
+            if (stored.getVersion() != expectedVersion) {
+                throw new VersionConflictException(id, expectedVersion, stored.getVersion());
+            }
+            if (stored != edited) stored.copyEditableFieldsFrom(edited);
+            stored.incrementVersion();
+            reindex(stored);
+            markDirty(id);
+            return slot;
+        });
+        if (found[0]) version.incrementAndGet();
+        return found[0];
+    }
+
+    /**
+     * Atomically check and change an internship in place.<br>
+     * No other change of the same internship runs at the same time. The change is recorded for the next save
+     * if it returns true. An exception thrown by the change propagates and nothing is recorded.
+     *
+     * @param internshipId ID of the internship
+     * @param change applies the change and returns whether it changed the internship
+     * @return false if there is no such internship or the change returned false
+     */
+    public boolean modify(String internshipId, Predicate<? super Internship> change) {
+        if (internshipId == null) return false;
+        boolean[] changed = new boolean[1];
+        internships.computeIfPresent(internshipId, (id, slot) -> {
+            changed[0] = change.test(slot.internship);
+            if (changed[0]) {
+                slot.internship.incrementVersion();
+                reindex(slot.internship);
+                markDirty(id);
+            }
+            // Storing the slot again publishes the changed fields to readers
+            return slot;
+        });
+        if (changed[0]) version.incrementAndGet();
+        return changed[0];
     }
 
     /**
      * Delete an internship
      */
     public boolean delete(String internshipId) {
-        Internship internship = findById(internshipId);
-        if (internship == null) {
-            return false;
+        return delete(internshipId, internship -> true);
+    }
+
+    /**
+     * Atomically delete an internship if it meets a condition
+     * @return false if there is no such internship or it does not meet the condition
+     */
+    public boolean delete(String internshipId, Predicate<? super Internship> condition) {
+        if (internshipId == null) return false;
+        boolean[] deleted = new boolean[1];
+        internships.computeIfPresent(internshipId, (id, slot) -> {
+            if (!condition.test(slot.internship)) return slot;
+            remove(slot);
+            dirty.remove(id);
+            deletedIds.put(id, changeStamp.incrementAndGet());
+            deleted[0] = true;
+            return null;
+        });
+        if (deleted[0]) version.incrementAndGet();
+        return deleted[0];
+    }
+
+    /**
+     * Register an index and fill it with the internships already in the repository.<br>
+     * From then on the index is told of every change, inside the same atomic step as the change itself.
+     */
+    public void addIndex(InternshipIndex index) {
+        indexes.add(index);
+        // Filled in the order the internships were added, for indexes that keep that order among equal keys
+        for (Internship internship : insertionOrder.values()) {
+            // Runs in turn with changes of the internship, so the index cannot miss one or see it twice out of order
+            internships.computeIfPresent(internship.getInternshipID(), (key, slot) -> {
+                index.upsert(slot.internship);
+                return slot;
+            });
         }
-        internshipList.remove(internship);
-        return true;
     }
 
     /**
-     * Get all internships
+     * Get all internships as a read-only list.<br>
+     * The same list is returned until the repository changes, so repeated reads do not copy the internships.
      */
     public List<Internship> getAll() {
-        return new ArrayList<>(internshipList);
+        long current = version.get();
+        Snapshot all = snapshot;
+        if (all.version != current) {
+            // Built after reading the version, so it contains at least every change counted in it
+            all = new Snapshot(current, List.copyOf(insertionOrder.values()));
+            snapshot = all;
+        }
+        return all.internships;
     }
 
     /**
      * Get all internships for a specific company representative
      */
     public List<Internship> getByRepresentative(String companyRepId) {
-        return internshipList.stream()
-            .filter(i -> i.getCompanyRepId().equals(companyRepId))
-            .collect(Collectors.toList());
+        Map<String, Slot> listings = companyRepId == null ? null : byRepresentative.get(companyRepId);
+        if (listings == null) return new ArrayList<>();
+        List<Slot> slots = new ArrayList<>(listings.values());
+        slots.sort(Comparator.comparingLong(slot -> slot.seq));
+        List<Internship> result = new ArrayList<>(slots.size());
+        for (Slot slot : slots) {
+            result.add(slot.internship);
+        }
+        return result;
     }
 
     /**
      * Get count of internships for a representative
      */
     public int getCountByRepresentative(String companyRepId) {
-        return (int) internshipList.stream()
-            .filter(i -> i.getCompanyRepId().equals(companyRepId))
-            .count();
+        Map<String, Slot> listings = companyRepId == null ? null : byRepresentative.get(companyRepId);
+        return listings == null ? 0 : listings.size();
     }
 
     /**
-     * Save all internships to persistent storage
+     * Save internships changed since the last save to persistent storage.<br>
+     * Changes made while saving are kept for the next save.
      */
     public void save() {
-        persistence.save(internshipList);
+        synchronized (saveLock) {
+            Map<String, Long> changedIds = Map.copyOf(dirty);
+            Map<String, Long> deleted = Map.copyOf(deletedIds);
+            List<Internship> changed = new ArrayList<>(changedIds.size());
+            for (String id : changedIds.keySet()) {
+                Internship internship = findById(id);
+                if (internship != null) changed.add(internship);
+            }
+            persistence.saveChanges(getAll(), changed, new ArrayList<>(deleted.keySet()));
+            // Only forget entries that were not changed again in the meantime
+            changedIds.forEach(dirty::remove);
+            deleted.forEach(deletedIds::remove);
+        }
+    }
+
+    private Slot insert(Internship internship) {
+        Slot slot = new Slot(nextSeq.getAndIncrement(), internship);
+        index(slot);
+        return slot;
+    }
+
+    private void index(Slot slot) {
+        insertionOrder.put(slot.seq, slot.internship);
+        String companyRepId = slot.internship.getCompanyRepId();
+        if (companyRepId != null) {
+            // Added inside the compute so that a concurrent remove cannot drop the bucket in between
+            byRepresentative.compute(companyRepId, (rep, listings) -> {
+                if (listings == null) listings = new ConcurrentHashMap<>();
+                listings.put(slot.internship.getInternshipID(), slot);
+                return listings;
+            });
+        }
+        reindex(slot.internship);
+    }
+
+    private void remove(Slot slot) {
+        insertionOrder.remove(slot.seq);
+        String companyRepId = slot.internship.getCompanyRepId();
+        if (companyRepId != null) {
+            byRepresentative.computeIfPresent(companyRepId, (rep, listings) -> {
+                listings.remove(slot.internship.getInternshipID());
+                return listings.isEmpty() ? null : listings;
+            });
+        }
+        for (InternshipIndex index : indexes) {
+            index.remove(slot.internship);
+        }
+    }
+
+    private void reindex(Internship internship) {
+        for (InternshipIndex index : indexes) {
+            index.upsert(internship);
+        }
+    }
+
+    private void markDirty(String internshipId) {
+        dirty.put(internshipId, changeStamp.incrementAndGet());
+        deletedIds.remove(internshipId);
+    }
+
+    /**
+     * An internship with the position it was added at
+     */
+    private static final class Slot {
+        private final long seq;
+        private final Internship internship;
+
+        Slot(long seq, Internship internship) {
+            this.seq = seq;
+            this.internship = internship;
+        }
+    }
+
+    /**
+     * A read-only list of all internships as of a version
+     */
+    private static final class Snapshot {
+        private final long version;
+        private final List<Internship> internships;
+
+        Snapshot(long version, List<Internship> internships) {
+            this.version = version;
+            this.internships = internships;
+        }
     }
 }
@@ -1,7 +1,6 @@
 package controllers;
 
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import models.DateCodec;
 import models.Internship;
 import models.Internship.InternshipLevel;
 import models.Internship.InternshipStatus;
@@ -18,12 +17,9 @@ import models.Internship.InternshipStatus;
  */
 public class InternshipSerializer implements Serializer<Internship>{
 
-	// Use dd/MM/yyyy to match CSV date format
-	private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-
 	/**
 	 * Deserializes the given string into the Internship by creating a <br>
-	 * new instance of Internship by separating the line by commas into:<br>
+	 * new instance of Internship by separating the line by commas, honouring quoted fields, into:<br>
 	 * <ol>
 	 * <li>ListingID</li>
 	 * <li>Title</li>
@@ -46,24 +42,74 @@ public class InternshipSerializer implements Serializer<Internship>{
 	 */
 	@Override
 	public Internship deserialize(String line) {
-		String[] rowData = line.split(",");
-		Internship internship = new Internship(rowData[0],rowData[1],rowData[2],InternshipLevel.valueOf(rowData[3]),rowData[4],LocalDate.parse(rowData[5], FORMATTER),LocalDate.parse(rowData[6], FORMATTER),InternshipStatus.valueOf(rowData[7]),rowData[8], rowData[9], Integer.parseInt(rowData[10]), Integer.parseInt(rowData[11]), Integer.parseInt(rowData[12]), Boolean.parseBoolean(rowData[13]) );
+		return deserialize((CharSequence) line);
+	}
+	
+	
+	/**
+	 * Deserializes the Internship reading the fields in place with {@link CsvTokenizer}, so a view over<br>
+	 * a memory-mapped file is never copied into a String. See {@link #deserialize(String)} for the columns.
+	 * 
+	 * A row with slot counts a listing cannot hold is reported and skipped, so it does not abort loading the file.
+	 * 
+	 * @param line the line to deserialize
+	 * @return the Internship Object reconstructed from the line of text, or null if the row is skipped
+	 */
+	@Override
+	public Internship deserialize(CharSequence line) {
+		CsvTokenizer rowData = CsvTokenizer.forCurrentThread().reset(line);
+		int totalSlots = rowData.getInt(10);
+		int confirmedSlots = rowData.getInt(12);
+		if (!Internship.isValidSlotCount(totalSlots) || !Internship.isValidSlotCount(confirmedSlots)) {
+			System.out.println("Error: Skipping internship " + rowData.getString(0) + " with invalid slot counts (total "
+				+ totalSlots + ", confirmed " + confirmedSlots + ").");
+			return null;
+		}
+		Internship internship = new Internship(rowData.getString(0),rowData.getString(1),rowData.getString(2),InternshipLevel.valueOf(rowData.getString(3)),rowData.getString(4),rowData.getDate(5),rowData.getDate(6),InternshipStatus.valueOf(rowData.getString(7)),rowData.getString(8), rowData.getString(9), totalSlots, rowData.getInt(11), confirmedSlots, rowData.getBoolean(13) );
 		return internship;
 	}
 	
 	/**
 	 * Serializes the Internship Object into a string of information to be stored into the corresponding file
-	 * by retrieving the 
+	 * by retrieving the fields in the order listed in {@link #deserialize(String)}.<br>
+	 * Text fields containing commas or quotes are quoted so that they are read back unchanged.
 	 * 
 	 * @param internship the Internship to serialize
 	 * @return a string that is comma delimited for csv file
 	 */
 	@Override
 	public String serialize(Internship internship) {
-		String line = internship.getInternshipID() + "," + internship.getTitle() + "," + internship.getDescription() + "," + internship.getLevel().toString() + "," + internship.getPreferredMajor() + "," + FORMATTER.format(internship.getOpeningDate()) + "," + FORMATTER.format(internship.getClosingDate())
-				+ "," + internship.getStatus().toString() + "," + internship.getCompanyName() + "," + internship.getCompanyRepId() + "," + String.valueOf(internship.getTotalSlots()) + "," + String.valueOf(internship.getAvailableSlots()) + "," + String.valueOf(internship.getConfirmedSlots()) + ","
-				+ String.valueOf(internship.isVisible());
-		return line;
+		StringBuilder sb = new StringBuilder(128);
+		serialize(internship, sb);
+		return sb.toString();
+	}
+	
+	
+	/**
+	 * Appends the fields of the Internship to the row directly, see {@link #serialize(Internship)}
+	 * 
+	 * @param internship the Internship to serialize
+	 * @param sb the builder the row is appended to
+	 */
+	@Override
+	public void serialize(Internship internship, StringBuilder sb) {
+		CsvTokenizer.appendEscaped(sb, internship.getInternshipID());
+		sb.append(',');
+		CsvTokenizer.appendEscaped(sb, internship.getTitle());
+		sb.append(',');
+		CsvTokenizer.appendEscaped(sb, internship.getDescription());
+		sb.append(',').append(internship.getLevel().name()).append(',');
+		CsvTokenizer.appendEscaped(sb, internship.getPreferredMajor());
+		sb.append(',').append(DateCodec.format(internship.getOpeningDate()))
+				.append(',').append(DateCodec.format(internship.getClosingDate()))
+				.append(',').append(internship.getStatus().name()).append(',');
+		CsvTokenizer.appendEscaped(sb, internship.getCompanyName());
+		sb.append(',');
+		CsvTokenizer.appendEscaped(sb, internship.getCompanyRepId());
+		sb.append(',').append(internship.getTotalSlots())
+				.append(',').append(internship.getAvailableSlots())
+				.append(',').append(internship.getConfirmedSlots())
+				.append(',').append(internship.isVisible());
 	}
 	
 	
@@ -0,0 +1,45 @@
+package controllers;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import models.Internship;
+import models.Internship.InternshipStatus;
+
+/**
+ * Live count of internships per status, kept up to date by the repository so that counting takes constant time.
+ */
+public class InternshipStatusCounts implements InternshipIndex {
+    // Status each internship is counted under
+    private final Map<String, InternshipStatus> statusById = new ConcurrentHashMap<>();
+    private final AtomicIntegerArray counts = new AtomicIntegerArray(InternshipStatus.values().length);
+
+    @Override
+    public void upsert(Internship internship) {
+        InternshipStatus status = internship.getStatus();
+        InternshipStatus previous = statusById.put(internship.getInternshipID(), status);
+        if (previous == status) return;
+        if (previous != null) counts.decrementAndGet(previous.ordinal());
+        counts.incrementAndGet(status.ordinal());
+    }
+
+    @Override
+    public void remove(Internship internship) {
+        InternshipStatus previous = statusById.remove(internship.getInternshipID());
+        if (previous != null) counts.decrementAndGet(previous.ordinal());
+    }
+
+    /**
+     * @return number of internships in the status
+     */
+    public int count(InternshipStatus status) {
+        return counts.get(status.ordinal());
+    }
+
+    /**
+     * @return number of internships
+     */
+    public int total() {
+        return statusById.size();
+    }
+}
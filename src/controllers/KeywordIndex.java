@@ -0,0 +1,112 @@
+package controllers;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import models.Internship;
+
+/**
+ * Inverted index from the words of internship titles and descriptions to internship IDs.<br>
+ * Words are lower-cased runs of letters and digits. A query matches the internships that contain, for every word
+ * of the query, a word containing it, so "ware dev" finds "Software Developer". An internship containing every
+ * space-separated part of the query as a substring always matches, so the matches are the candidates of a substring
+ * search; the caller checks them for each part. Only the distinct words are scanned, never the texts.<br>
+ * Lookups read concurrent maps without locking, changes to the index are serialised.
+ */
+public class KeywordIndex implements InternshipIndex {
+    private final Map<String, Set<String>> postings = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> wordsById = new ConcurrentHashMap<>();
+
+    @Override
+    public synchronized void upsert(Internship internship) {
+        String id = internship.getInternshipID();
+        Set<String> words = new HashSet<>(tokenize(internship.getTitle()));
+        words.addAll(tokenize(internship.getDescription()));
+        Set<String> previous = wordsById.put(id, words);
+        if (previous != null) {
+            for (String word : previous) {
+                if (!words.contains(word)) removePosting(word, id);
+            }
+        }
+        for (String word : words) {
+            if (previous == null || !previous.contains(word)) {
+                postings.computeIfAbsent(word, k -> ConcurrentHashMap.newKeySet()).add(id);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void remove(Internship internship) {
+        String id = internship.getInternshipID();
+        Set<String> previous = wordsById.remove(id);
+        if (previous == null) return;
+        for (String word : previous) {
+            removePosting(word, id);
+        }
+    }
+
+    private void removePosting(String word, String id) {
+        Set<String> ids = postings.get(word);
+        if (ids == null) return;
+        ids.remove(id);
+        if (ids.isEmpty()) postings.remove(word);
+    }
+
+    /**
+     * Find the internships matching every word of a query
+     * @param query words separated by spaces or punctuation
+     * @return IDs of the matching internships, or null if the query has no words
+     */
+    public Set<String> match(String query) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        if (terms.isEmpty()) return null;
+        Set<String> result = null;
+        for (String term : terms) {
+            Set<String> ids = containingMatches(term);
+            if (result == null || ids.size() < result.size()) {
+                // Keep the smaller set and intersect it with the larger one
+                Set<String> larger = result;
+                result = ids;
+                if (larger != null) result.retainAll(larger);
+            } else {
+                result.retainAll(ids);
+            }
+            if (result.isEmpty()) break;
+        }
+        return result;
+    }
+
+    /**
+     * IDs of the internships containing a word that contains the term
+     */
+    private Set<String> containingMatches(String term) {
+        Set<String> ids = new HashSet<>();
+        postings.forEach((word, posting) -> {
+            if (word.contains(term)) ids.addAll(posting);
+        });
+        return ids;
+    }
+
+    /**
+     * Split text into lower-cased words of letters and digits
+     */
+    static List<String> tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) return words;
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(text.substring(start, i).toLowerCase());
+                start = -1;
+            }
+        }
+        return words;
+    }
+}
@@ -0,0 +1,118 @@
+package controllers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Finds the lines of a memory-mapped CSV file directly in the mapped bytes.<br>
+ * Each line is handed out as a {@link CharSequence} view over the buffer, so ASCII rows are never copied
+ * into an intermediate {@code String}. Rows containing non-ASCII bytes are decoded as UTF-8 instead.
+ */
+final class MappedLineScanner {
+    /**
+     * Largest file that can be mapped, a single mapping cannot exceed 2 GiB
+     */
+    static final long MAX_MAPPED_SIZE = Integer.MAX_VALUE;
+
+    private MappedLineScanner() {}
+
+    /**
+     * Map a whole file read-only, it must not be larger than {@link #MAX_MAPPED_SIZE}
+     */
+    static MappedByteBuffer map(FileChannel channel) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+
+    /**
+     * Find the start of the line following the given position
+     * @return index just after the next '\n' at or after {@code from}, or {@code limit} if there is none
+     */
+    static int nextLineStart(ByteBuffer buffer, int from, int limit) {
+        for (int i = from; i < limit; i++) {
+            if (buffer.get(i) == '\n') return i + 1;
+        }
+        return limit;
+    }
+
+    /**
+     * Hand every non-blank line in {@code [from, to)} to the consumer, including a last line without a terminating '\n'
+     */
+    static void forEachLine(ByteBuffer buffer, int from, int to, Consumer<? super CharSequence> consumer) {
+        int lineStart = from;
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == '\n') {
+                emit(buffer, lineStart, i, consumer);
+                lineStart = i + 1;
+            }
+        }
+        if (lineStart < to) {
+            emit(buffer, lineStart, to, consumer);
+        }
+    }
+
+    private static void emit(ByteBuffer buffer, int start, int end, Consumer<? super CharSequence> consumer) {
+        if (end > start && buffer.get(end - 1) == '\r') end--;
+        boolean blank = true;
+        boolean ascii = true;
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b < 0) ascii = false;
+            if (b != ' ' && b != '\t') blank = false;
+        }
+        if (blank) return;
+        if (ascii) {
+            consumer.accept(new ByteLine(buffer, start, end - start));
+        } else {
+            byte[] bytes = new byte[end - start];
+            buffer.get(start, bytes);
+            consumer.accept(new String(bytes, StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Read-only view of ASCII bytes in a buffer as characters
+     */
+    static final class ByteLine implements CharSequence {
+        private final ByteBuffer buffer;
+        private final int offset;
+        private final int length;
+
+        ByteLine(ByteBuffer buffer, int offset, int length) {
+            this.buffer = buffer;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + length);
+            }
+            return (char) buffer.get(offset + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || end > length || start > end) {
+                throw new IndexOutOfBoundsException("Range [" + start + ", " + end + ") out of bounds for length " + length);
+            }
+            return new ByteLine(buffer, offset + start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            byte[] bytes = new byte[length];
+            buffer.get(offset, bytes);
+            return new String(bytes, StandardCharsets.ISO_8859_1);
+        }
+    }
+}
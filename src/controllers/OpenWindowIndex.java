@@ -0,0 +1,180 @@
+package controllers;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import models.Internship;
+
+/**
+ * Calendar index of the application window of each internship, from its opening to its closing date.<br>
+ * The index keeps the set of internships whose window contains today, so queries do not compare dates per listing.
+ * Internships outside their window wait in a bucket for the day they open or close. When the day changes, only the
+ * buckets of the days passed are visited.<br>
+ * The day is advanced by a background clock at midnight and, in case the clock is late, by the first query of a new day.
+ * Each internship that opens or closes is passed to a listener.
+ */
+public class OpenWindowIndex implements InternshipIndex {
+    private final Clock clock;
+    private final Consumer<Internship> onWindowChange;
+    private final Map<String, Window> windows = new HashMap<>();
+    // Internships that open on the day of the key, and open internships that close before the day of the key
+    private final TreeMap<LocalDate, Set<String>> opening = new TreeMap<>();
+    private final TreeMap<LocalDate, Set<String>> closing = new TreeMap<>();
+    private final Set<String> open = ConcurrentHashMap.newKeySet();
+    private volatile LocalDate today;
+    private ScheduledExecutorService midnightClock;
+
+    /**
+     * @param onWindowChange called with each internship that opens or closes when the day changes
+     */
+    public OpenWindowIndex(Consumer<Internship> onWindowChange) {
+        this(Clock.systemDefaultZone(), onWindowChange);
+    }
+
+    /**
+     * @param clock clock giving the current day
+     * @param onWindowChange called with each internship that opens or closes when the day changes
+     */
+    public OpenWindowIndex(Clock clock, Consumer<Internship> onWindowChange) {
+        this.clock = clock;
+        this.onWindowChange = onWindowChange;
+        this.today = LocalDate.now(clock);
+    }
+
+    /**
+     * Start advancing the day in the background at every midnight.<br>
+     * The clock runs on a daemon thread, so it does not keep the program running.
+     */
+    public synchronized void startClock() {
+        if (midnightClock != null) return;
+        midnightClock = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "open-window-clock");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduleNextMidnight();
+    }
+
+    private void scheduleNextMidnight() {
+        ZonedDateTime now = ZonedDateTime.now(clock);
+        ZonedDateTime midnight = now.toLocalDate().plusDays(1).atStartOfDay(now.getZone());
+        midnightClock.schedule(() -> {
+            try {
+                catchUp();
+            } finally {
+                // Scheduled one day at a time, as days are not always 24 hours long
+                scheduleNextMidnight();
+            }
+        }, Duration.between(now, midnight).toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Get the internships whose application window contains today
+     * @return IDs of the open internships, a live read-only view
+     */
+    public Set<String> openIds() {
+        catchUp();
+        return Collections.unmodifiableSet(open);
+    }
+
+    /**
+     * Advance the index to the current day if the day changed since it was last advanced
+     */
+    public void catchUp() {
+        LocalDate now = LocalDate.now(clock);
+        if (!now.equals(today)) advanceTo(now);
+    }
+
+    private void advanceTo(LocalDate day) {
+        Set<Internship> changed = new HashSet<>();
+        synchronized (this) {
+            if (!day.isAfter(today)) return;
+            today = day;
+            // An internship that opened and closed again within the days passed is not put in the open set
+            while (!opening.isEmpty() && !opening.firstKey().isAfter(day)) {
+                for (String id : opening.pollFirstEntry().getValue()) {
+                    Window window = windows.get(id);
+                    place(id, window);
+                    changed.add(window.internship);
+                }
+            }
+            while (!closing.isEmpty() && !closing.firstKey().isAfter(day)) {
+                for (String id : closing.pollFirstEntry().getValue()) {
+                    open.remove(id);
+                    changed.add(windows.get(id).internship);
+                }
+            }
+        }
+        // Outside the lock, so listeners may query the index
+        changed.forEach(onWindowChange);
+    }
+
+    @Override
+    public synchronized void upsert(Internship internship) {
+        String id = internship.getInternshipID();
+        Window window = new Window(internship);
+        Window previous = windows.put(id, window);
+        if (previous != null) unplace(id, previous);
+        place(id, window);
+    }
+
+    @Override
+    public synchronized void remove(Internship internship) {
+        String id = internship.getInternshipID();
+        Window previous = windows.remove(id);
+        if (previous != null) unplace(id, previous);
+    }
+
+    /**
+     * Put an internship in the open set or the bucket of the day it changes next, as of today
+     */
+    private void place(String id, Window window) {
+        if (window.openingDate == null || window.closingDate == null) return;
+        if (today.isBefore(window.openingDate)) {
+            opening.computeIfAbsent(window.openingDate, k -> new HashSet<>()).add(id);
+        } else if (!today.isAfter(window.closingDate)) {
+            open.add(id);
+            closing.computeIfAbsent(window.closingDate.plusDays(1), k -> new HashSet<>()).add(id);
+        }
+    }
+
+    private void unplace(String id, Window window) {
+        open.remove(id);
+        if (window.openingDate != null) removeFrom(opening, window.openingDate, id);
+        if (window.closingDate != null) removeFrom(closing, window.closingDate.plusDays(1), id);
+    }
+
+    private static void removeFrom(TreeMap<LocalDate, Set<String>> buckets, LocalDate day, String id) {
+        Set<String> bucket = buckets.get(day);
+        if (bucket == null) return;
+        bucket.remove(id);
+        if (bucket.isEmpty()) buckets.remove(day);
+    }
+
+    /**
+     * An internship with the window it is indexed under
+     */
+    private static final class Window {
+        private final Internship internship;
+        private final LocalDate openingDate;
+        private final LocalDate closingDate;
+
+        Window(Internship internship) {
+            this.internship = internship;
+            this.openingDate = internship.getOpeningDate();
+            this.closingDate = internship.getClosingDate();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package controllers;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * One page of a query result.<br>
+ * A page is taken from the front of a result without evaluating the rest of it, so the total number of results
+ * is not known, only whether there are more after the page.
+ * @param <T> type of the results
+ */
+public class Page<T> {
+    private final List<T> items;
+    private final int offset;
+    private final boolean hasMore;
+
+    private Page(List<T> items, int offset, boolean hasMore) {
+        this.items = items;
+        this.offset = offset;
+        this.hasMore = hasMore;
+    }
+
+    /**
+     * Take a page from a stream, evaluating it only up to one result past the page
+     * @param results the results in order
+     * @param offset number of results to skip
+     * @param limit maximum number of results on the page
+     */
+    public static <T> Page<T> of(Stream<T> results, int offset, int limit) {
+        checkRange(offset, limit);
+        List<T> items = new ArrayList<>(Math.min(limit, 64));
+        Iterator<T> it = results.skip(offset).iterator();
+        while (items.size() < limit && it.hasNext()) {
+            items.add(it.next());
+        }
+        return new Page<>(List.copyOf(items), offset, it.hasNext());
+    }
+
+    /**
+     * Take a page from a list
+     * @param results the results in order
+     * @param offset number of results to skip
+     * @param limit maximum number of results on the page
+     */
+    public static <T> Page<T> of(List<T> results, int offset, int limit) {
+        checkRange(offset, limit);
+        int from = Math.min(offset, results.size());
+        int to = (int) Math.min((long) from + limit, results.size());
+        return new Page<>(List.copyOf(results.subList(from, to)), offset, to < results.size());
+    }
+
+    private static void checkRange(int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit must not be negative: " + offset + ", " + limit);
+        }
+    }
+
+    /**
+     * @return the results on this page as a read-only list
+     */
+    public List<T> getItems() { return items; }
+
+    /**
+     * @return number of results before this page
+     */
+    public int getOffset() { return offset; }
+
+    /**
+     * @return offset of the next page
+     */
+    public int getNextOffset() { return offset + items.size(); }
+
+    /**
+     * @return true if there are results after this page
+     */
+    public boolean hasMore() { return hasMore; }
+}
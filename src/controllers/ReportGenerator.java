@@ -131,8 +131,7 @@ public class ReportGenerator {
         if (userManager.getStudentByID(studentId) == null) {
             return null; // Return null to indicate invalid student ID
         }
-        List<Application> allApplications = applicationManager.getApplicationList();
-        return allApplications.stream()
+        return applicationManager.getApplicationsByStudent(studentId).stream()
                 .filter(app -> app.getStudent() != null && studentId.equals(app.getStudent().getID()))
                 .collect(Collectors.toList());
     }
@@ -160,25 +159,23 @@ public class ReportGenerator {
 
         report.append("Total Students: ").append(students.size()).append("\n");
         report.append("Total Company Representatives: ").append(companyReps.size()).append("\n");
-        report.append("Approved Company Representatives: ")
-                .append(companyReps.stream().filter(cr -> cr.isApproved() != null && cr.isApproved()).count()).append("\n");
+        report.append("Approved Company Representatives: ").append(userManager.getApprovedRepCount()).append("\n");
         report.append("Total Career Center Staff: ").append(staff.size()).append("\n\n");
 
-        List<Internship> allInternships = internshipManager.getAllInternships();
-        report.append("Total Internship Opportunities: ").append(allInternships.size()).append("\n");
+        // Counts are kept up to date by the managers, so the report does not visit any internship or application
+        report.append("Total Internship Opportunities: ").append(internshipManager.getInternshipCount()).append("\n");
 
-        report.append(" - PENDING: ").append(allInternships.stream().filter(i -> i.getStatus() == Internship.InternshipStatus.PENDING).count()).append("\n");
-        report.append(" - APPROVED: ").append(allInternships.stream().filter(i -> i.getStatus() == Internship.InternshipStatus.APPROVED).count()).append("\n");
-        report.append(" - REJECTED: ").append(allInternships.stream().filter(i -> i.getStatus() == Internship.InternshipStatus.REJECTED).count()).append("\n");
-        report.append(" - FILLED: ").append(allInternships.stream().filter(i -> i.getStatus() == Internship.InternshipStatus.FILLED).count()).append("\n\n");
+        report.append(" - PENDING: ").append(internshipManager.getInternshipCountByStatus(Internship.InternshipStatus.PENDING)).append("\n");
+        report.append(" - APPROVED: ").append(internshipManager.getInternshipCountByStatus(Internship.InternshipStatus.APPROVED)).append("\n");
+        report.append(" - REJECTED: ").append(internshipManager.getInternshipCountByStatus(Internship.InternshipStatus.REJECTED)).append("\n");
+        report.append(" - FILLED: ").append(internshipManager.getInternshipCountByStatus(Internship.InternshipStatus.FILLED)).append("\n\n");
 
-        List<Application> allApplications = applicationManager.getApplicationList();
-        report.append("Total Applications: ").append(allApplications.size()).append("\n");
-        report.append(" - PENDING: ").append(allApplications.stream().filter(app -> app.getStatus() == Application.ApplicationStatus.PENDING).count()).append("\n");
-        report.append(" - SUCCESSFUL: ").append(allApplications.stream().filter(app -> app.getStatus() == Application.ApplicationStatus.SUCCESSFUL).count()).append("\n");
-        report.append(" - UNSUCCESSFUL: ").append(allApplications.stream().filter(app -> app.getStatus() == Application.ApplicationStatus.UNSUCCESSFUL).count()).append("\n");
-        report.append(" - WITHDRAWN: ").append(allApplications.stream().filter(app -> app.getStatus() == Application.ApplicationStatus.WITHDRAWN).count()).append("\n");
-        report.append(" - WITHDRAW_REQUESTED: ").append(allApplications.stream().filter(app -> app.getStatus() == Application.ApplicationStatus.WITHDRAW_REQUESTED).count()).append("\n\n");
+        report.append("Total Applications: ").append(applicationManager.getApplicationCount()).append("\n");
+        report.append(" - PENDING: ").append(applicationManager.getApplicationCountByStatus(Application.ApplicationStatus.PENDING)).append("\n");
+        report.append(" - SUCCESSFUL: ").append(applicationManager.getApplicationCountByStatus(Application.ApplicationStatus.SUCCESSFUL)).append("\n");
+        report.append(" - UNSUCCESSFUL: ").append(applicationManager.getApplicationCountByStatus(Application.ApplicationStatus.UNSUCCESSFUL)).append("\n");
+        report.append(" - WITHDRAWN: ").append(applicationManager.getApplicationCountByStatus(Application.ApplicationStatus.WITHDRAWN)).append("\n");
+        report.append(" - WITHDRAW_REQUESTED: ").append(applicationManager.getApplicationCountByStatus(Application.ApplicationStatus.WITHDRAW_REQUESTED)).append("\n\n");
 
         return report.toString();
     }
@@ -194,12 +191,40 @@ public class ReportGenerator {
      * Returns all internships if no valid filters are provided
      */
     public List<Internship> generateCustomReport(String status, String level, String major, String company) {
-        Internship.InternshipStatus st = null;
-        Internship.InternshipLevel lvl = null;
-        try { if (status != null && !status.isEmpty()) st = Internship.InternshipStatus.valueOf(status.toUpperCase()); } catch (IllegalArgumentException ignored) {}
-        try { if (level != null && !level.isEmpty()) lvl = Internship.InternshipLevel.valueOf(level.toUpperCase()); } catch (IllegalArgumentException ignored) {}
-        String maj = (major != null && !major.isEmpty()) ? major : null;
-        String comp = (company != null && !company.isEmpty()) ? company : null;
-        return internshipManager.filterInternships(st, lvl, maj, comp);
+        return internshipManager.filterInternships(parseStatus(status), parseLevel(level), blankToNull(major), blankToNull(company));
+    }
+
+    /**
+     * Generates one page of a custom report, only evaluating the report as far as the page needs<br>
+     * @param status The internship status to filter by (optional, can be null or empty)
+     * @param level The internship level to filter by (optional, can be null or empty)
+     * @param major The preferred major to filter by (optional, can be null or empty)
+     * @param company The company name to filter by (optional, can be null or empty)
+     * @param offset Number of internships to skip
+     * @param limit Maximum number of internships on the page
+     * @return {@link Page} of {@link models.Internship} objects matching all specified criteria
+     */
+    public Page<Internship> generateCustomReport(String status, String level, String major, String company, int offset, int limit) {
+        return internshipManager.filterInternships(parseStatus(status), parseLevel(level), blankToNull(major), blankToNull(company), offset, limit);
+    }
+
+    /**
+     * @return the status, or null if the string is empty or not a status
+     */
+    private static Internship.InternshipStatus parseStatus(String status) {
+        try { if (status != null && !status.isEmpty()) return Internship.InternshipStatus.valueOf(status.toUpperCase()); } catch (IllegalArgumentException ignored) {}
+        return null;
+    }
+
+    /**
+     * @return the level, or null if the string is empty or not a level
+     */
+    private static Internship.InternshipLevel parseLevel(String level) {
+        try { if (level != null && !level.isEmpty()) return Internship.InternshipLevel.valueOf(level.toUpperCase()); } catch (IllegalArgumentException ignored) {}
+        return null;
+    }
+
+    private static String blankToNull(String value) {
+        return (value != null && !value.isEmpty()) ? value : null;
     }
 }
@@ -22,6 +22,19 @@ public interface Serializer<T> {
 	public String serialize(T entity);
 	
 	
+	/**
+	 * Serializes the given entity by appending its fields to a row being built, without the line separator.<br>
+	 * The default appends the result of {@link #serialize(Object)}, implementations may override it to append the<br>
+	 * fields directly so that a shared builder can be reused for every row of a file
+	 * 
+	 * @param entity the entity to serialize
+	 * @param sb the builder the comma delimited row is appended to
+	 */
+	public default void serialize(T entity, StringBuilder sb) {
+		sb.append(serialize(entity));
+	}
+	
+	
 	/**
 	 * Deserializes the given string into the corresponding entity by creating a new instance of the entity using
 	 * the given information from the string that was read from the file
@@ -32,6 +45,18 @@ public interface Serializer<T> {
 	public T deserialize(String line);
 	
 	
+	/**
+	 * Deserializes a line given as a character sequence, such as a view over a memory-mapped file.<br>
+	 * The default copies the line into a String, implementations may override it to read the fields in place
+	 * 
+	 * @param line the line to deserialize
+	 * @return the entity reconstructed from the line of text
+	 */
+	public default T deserialize(CharSequence line) {
+		return deserialize(line.toString());
+	}
+	
+	
 	/**
 	 * Obtains the filepath for the corresponding entity class
 	 * 
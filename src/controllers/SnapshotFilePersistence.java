@@ -0,0 +1,82 @@
+package controllers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Keeps a binary snapshot next to a CSV file and loads from the snapshot when it is current. @see DataPersistence for more information on methods<br>
+ * The CSV file stays the primary copy: every save writes it first and then the snapshot, so a snapshot that is older
+ * than the CSV file (a crash between both writes, or an edit of the CSV file) is ignored. A missing or unreadable
+ * snapshot also falls back to the CSV file. Wrapped in a {@link ChangeLogPersistence}, its change log is replayed on
+ * top of whichever of the two was loaded.
+ *
+ * @param <T> the type of entity persisted
+ */
+public class SnapshotFilePersistence<T> implements DataPersistence<T> {
+    private final DataPersistence<T> csv;
+    private final Path csvPath;
+    private final BinarySnapshotPersistence<T> snapshot;
+    private final Path snapshotPath;
+
+    /**
+     * @param csv persistence of the CSV file
+     * @param csvPath path of the CSV file
+     * @param snapshotSerializer serializer of the snapshot, which also provides its file path
+     */
+    public SnapshotFilePersistence(DataPersistence<T> csv, String csvPath, BinarySerializer<T> snapshotSerializer) {
+        this.csv = csv;
+        this.csvPath = Path.of(csvPath);
+        this.snapshot = new BinarySnapshotPersistence<>(snapshotSerializer);
+        this.snapshotPath = Path.of(snapshotSerializer.getFilePath());
+    }
+
+    @Override
+    public List<T> load() {
+        List<T> entities = new ArrayList<>();
+        load(entities::add);
+        return entities;
+    }
+
+    /**
+     * Streams the snapshot to the consumer. If it turns out to be corrupt part way, the CSV file is streamed as well;
+     * entities already handed out come again with the same data, which every loader keeps once by its key.
+     */
+    @Override
+    public void load(Consumer<? super T> consumer) {
+        if (isSnapshotCurrent()) {
+            try {
+                snapshot.load(consumer);
+                return;
+            } catch (UncheckedIOException e) {
+                // Corrupt snapshot, the CSV file has the same data
+            }
+        }
+        csv.load(consumer);
+    }
+
+    /**
+     * Write the CSV file, then the snapshot
+     */
+    @Override
+    public void save(List<T> entities) {
+        csv.save(entities);
+        snapshot.save(entities);
+    }
+
+    private boolean isSnapshotCurrent() {
+        try {
+            return Files.getLastModifiedTime(snapshotPath).compareTo(Files.getLastModifiedTime(csvPath)) >= 0;
+        } catch (NoSuchFileException e) {
+            // No snapshot yet, or only a snapshot without its CSV file
+            return Files.exists(snapshotPath);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
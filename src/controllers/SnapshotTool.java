@@ -0,0 +1,44 @@
+package controllers;
+
+import java.util.List;
+
+/**
+ * Command line tool rewriting the CSV file and the binary snapshot of internships or applications.<br>
+ * <br>
+ * Usage: {@code java controllers.SnapshotTool <internships|applications>}<br>
+ * <br>
+ * The data is loaded the way the application loads it on startup, from the snapshot when it is current and otherwise
+ * from the CSV file, with the pending change log replayed on top. Both files are then rewritten and the change log is
+ * discarded, so the next start loads the fresh snapshot. Applications are refused while their transition log still holds
+ * transitions, because those are only replayed by {@link ApplicationManager}; start and exit the application first.
+ */
+public class SnapshotTool {
+
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            printUsage();
+            return;
+        }
+        switch (args[0]) {
+            case "internships" -> rewrite(InternshipManager.createPersistence());
+            case "applications" -> {
+                if (!new TransitionLog(ApplicationManager.transitionLogPath()).readEntries().isEmpty()) {
+                    System.out.println("Error: The application transition log is not empty. Start and exit the application to save it first.");
+                    return;
+                }
+                rewrite(ApplicationManager.createPersistence());
+            }
+            default -> printUsage();
+        }
+    }
+
+    private static <T> void rewrite(DataPersistence<T> persistence) {
+        List<T> entities = persistence.load();
+        persistence.save(entities);
+        System.out.println("Saved " + entities.size() + " record(s).");
+    }
+
+    private static void printUsage() {
+        System.out.println("Usage: java controllers.SnapshotTool <internships|applications>");
+    }
+}
@@ -27,8 +27,21 @@ public class StaffSerializer implements Serializer<CareerCenterStaff>{
 	 * @return the CareerCenterStaff reconstructed from the line of text
 	 */
 	public CareerCenterStaff deserialize(String line) {
-		String[] rowData = line.split(",");
-		CareerCenterStaff staff = new CareerCenterStaff(rowData[0],rowData[1],rowData[2],rowData[3],rowData[4], rowData[5]);
+		return deserialize((CharSequence) line);
+	}
+	
+	
+	/**
+	 * Deserializes the CareerCenterStaff reading the fields in place with {@link CsvTokenizer}.<br>
+	 * See {@link #deserialize(String)} for the columns.
+	 * 
+	 * @param line the line to deserialize
+	 * @return the CareerCenterStaff reconstructed from the line of text
+	 */
+	@Override
+	public CareerCenterStaff deserialize(CharSequence line) {
+		CsvTokenizer rowData = CsvTokenizer.forCurrentThread().reset(line);
+		CareerCenterStaff staff = new CareerCenterStaff(rowData.getString(0),rowData.getString(1),rowData.getString(2),rowData.getString(3),rowData.getString(4), rowData.getString(5));
 		return staff;
 	}
 	
@@ -41,7 +54,7 @@ public class StaffSerializer implements Serializer<CareerCenterStaff>{
 	 * @return a string that is comma delimited for csv file
 	 */
 	public String serialize(CareerCenterStaff staff) {
-		String line = staff.getID() + "," + staff.getUserName() + "," + staff.getRole() +"," + staff.getDepartment() +"," + staff.getEmail() + "," + staff.getPassword();
+		String line = CsvTokenizer.escape(staff.getID()) + "," + CsvTokenizer.escape(staff.getUserName()) + "," + CsvTokenizer.escape(staff.getRole()) +"," + CsvTokenizer.escape(staff.getDepartment()) +"," + CsvTokenizer.escape(staff.getEmail()) + "," + CsvTokenizer.escape(staff.getPassword());
 		return line;
 	}
 	
@@ -0,0 +1,124 @@
+package controllers;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import models.Internship;
+import models.Internship.InternshipLevel;
+import models.Internship.InternshipStatus;
+
+/**
+ * Cache of the internships shown to students, shared by all students of the same eligibility tier and major.<br>
+ * The cache listens to the repository as an {@link InternshipIndex}. A feed is dropped when a listing of its major
+ * changes a field the feed depends on: status, visibility, whether it is full, level, dates, major or title.
+ * Other edits show through, since the feed holds the internships themselves.<br>
+ * Listings opening and closing with the date are reported by {@link OpenWindowIndex} through {@link #windowChanged}.
+ */
+public class StudentFeedCache implements InternshipIndex {
+    private final BiFunction<Integer, String, List<Internship>> loader;
+    private final Map<String, List<Internship>> feeds = new ConcurrentHashMap<>();
+    // Fields each internship was last seen with, to tell which changes matter to the feeds
+    private final Map<String, FeedFields> fieldsById = new ConcurrentHashMap<>();
+    // Incremented before feeds are dropped, so a feed computed during a change is not stored afterwards
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * @param loader computes the feed for a year of study and a major
+     */
+    public StudentFeedCache(BiFunction<Integer, String, List<Internship>> loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Get the feed for a student, computing it if no valid feed is cached
+     * @return the visible internships as a read-only list
+     */
+    public List<Internship> get(int yearOfStudy, String major) {
+        String key = key(Internship.eligibilityTier(yearOfStudy), major);
+        List<Internship> cached = feeds.get(key);
+        if (cached != null) return cached;
+
+        long seen = generation.get();
+        List<Internship> computed = List.copyOf(loader.apply(yearOfStudy, major));
+        feeds.compute(key, (k, current) -> generation.get() == seen ? computed : current);
+        return computed;
+    }
+
+    /**
+     * An internship opened or closed for applications as the day changed
+     */
+    public void windowChanged(Internship internship) {
+        invalidate(internship.getPreferredMajor());
+    }
+
+    @Override
+    public void upsert(Internship internship) {
+        FeedFields fields = new FeedFields(internship);
+        FeedFields previous = fieldsById.put(internship.getInternshipID(), fields);
+        if (fields.equals(previous)) return;
+        invalidate(fields.major);
+        if (previous != null && !Objects.equals(previous.major, fields.major)) invalidate(previous.major);
+    }
+
+    @Override
+    public void remove(Internship internship) {
+        FeedFields previous = fieldsById.remove(internship.getInternshipID());
+        if (previous != null) invalidate(previous.major);
+    }
+
+    /**
+     * Drop the feeds of every tier for a major
+     */
+    private void invalidate(String major) {
+        generation.incrementAndGet();
+        feeds.remove(key(0, major));
+        feeds.remove(key(1, major));
+    }
+
+    private static String key(int tier, String major) {
+        return tier + "|" + (major == null ? "" : major.toLowerCase());
+    }
+
+    /**
+     * The fields of an internship that decide whether and where it appears in a feed
+     */
+    private static final class FeedFields {
+        private final InternshipStatus status;
+        private final boolean visible;
+        private final boolean full;
+        private final InternshipLevel level;
+        private final LocalDate openingDate;
+        private final LocalDate closingDate;
+        private final String major;
+        private final String title;
+
+        FeedFields(Internship internship) {
+            this.status = internship.getStatus();
+            this.visible = internship.isVisible();
+            this.full = internship.isFull();
+            this.level = internship.getLevel();
+            this.openingDate = internship.getOpeningDate();
+            this.closingDate = internship.getClosingDate();
+            this.major = internship.getPreferredMajor();
+            this.title = internship.getTitle();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof FeedFields)) return false;
+            FeedFields other = (FeedFields) o;
+            return status == other.status && visible == other.visible && full == other.full && level == other.level
+                && Objects.equals(openingDate, other.openingDate) && Objects.equals(closingDate, other.closingDate)
+                && Objects.equals(major, other.major) && Objects.equals(title, other.title);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(status, visible, full, level, openingDate, closingDate, major, title);
+        }
+    }
+}
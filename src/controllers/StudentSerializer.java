@@ -31,22 +31,35 @@ public class StudentSerializer implements Serializer<Student> {
 	 */
 	@Override
 	public Student deserialize(String line) {
-    String[] rowData = line.split(",");
-    if (rowData.length < 5) {
-        throw new IllegalArgumentException("Invalid student line (expected 5 columns): " + line);
+		return deserialize((CharSequence) line);
+	}
+
+
+	/**
+	 * Deserializes the Student reading the fields in place with {@link CsvTokenizer}.<br>
+	 * See {@link #deserialize(String)} for the columns.
+	 *
+	 * @param line the line to deserialize
+	 * @return the Student reconstructed from the line of text
+	 */
+	@Override
+	public Student deserialize(CharSequence line) {
+    CsvTokenizer rowData = CsvTokenizer.forCurrentThread().reset(line);
+    if (rowData.count() < 6) {
+        throw new IllegalArgumentException("Invalid student line (expected 6 columns): " + line);
     }
 
-    String id    = rowData[0].trim();
-    String name  = rowData[1].trim();
-    String major = rowData[2].trim();
+    String id    = rowData.getTrimmed(0);
+    String name  = rowData.getTrimmed(1);
+    String major = rowData.getTrimmed(2);
     int year;
     try {
-        year = Integer.parseInt(rowData[3].trim());
+        year = Integer.parseInt(rowData.getTrimmed(3));
     } catch (NumberFormatException e) {
-        throw new IllegalArgumentException("Invalid year value for student: " + rowData[3], e);
+        throw new IllegalArgumentException("Invalid year value for student: " + rowData.getString(3), e);
     }
-    String email = rowData[4].trim();
-    String password = rowData[5].trim();
+    String email = rowData.getTrimmed(4);
+    String password = rowData.getTrimmed(5);
     return new Student(id, name, major, year, email, password);
 }
 
@@ -59,7 +72,7 @@ public class StudentSerializer implements Serializer<Student> {
 	 */
 	@Override
 	public String serialize(Student student) {
-		String line = student.getID() + "," + student.getUserName() + "," + student.getMajor() + "," + student.getYearOfStudy() +"," + student.getEmail() + "," +student.getPassword();
+		String line = CsvTokenizer.escape(student.getID()) + "," + CsvTokenizer.escape(student.getUserName()) + "," + CsvTokenizer.escape(student.getMajor()) + "," + student.getYearOfStudy() +"," + CsvTokenizer.escape(student.getEmail()) + "," + CsvTokenizer.escape(student.getPassword());
 		return line;
 	}
 	
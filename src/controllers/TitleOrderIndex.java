@@ -0,0 +1,98 @@
+package controllers;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import models.Internship;
+
+/**
+ * Keeps internships sorted by title, so queries can read them in order instead of sorting.<br>
+ * Internships with the same title keep the order they were added in, as with a stable sort of the repository.
+ * A rename moves the internship to its new place and keeps that order.<br>
+ * Reading is not blocked by changes. An internship being renamed may be missed by a reader, like a change
+ * that has not happened yet.
+ */
+public class TitleOrderIndex implements InternshipIndex {
+    private final ConcurrentSkipListMap<Key, Internship> byTitle = new ConcurrentSkipListMap<>();
+    private final Map<String, Key> keyById = new ConcurrentHashMap<>();
+    private final AtomicLong arrivals = new AtomicLong();
+
+    @Override
+    public void upsert(Internship internship) {
+        String id = internship.getInternshipID();
+        Key previous = keyById.get(id);
+        Key key = previous != null && Objects.equals(previous.title, internship.getTitle())
+            ? previous
+            : new Key(internship.getTitle(), previous == null ? arrivals.getAndIncrement() : previous.arrival);
+        if (previous != null && key != previous) byTitle.remove(previous);
+        keyById.put(id, key);
+        byTitle.put(key, internship);
+    }
+
+    @Override
+    public void remove(Internship internship) {
+        Key previous = keyById.remove(internship.getInternshipID());
+        if (previous != null) byTitle.remove(previous);
+    }
+
+    /**
+     * @return all indexed internships in title order
+     */
+    public Stream<Internship> stream() {
+        return byTitle.values().stream();
+    }
+
+    /**
+     * @return number of indexed internships
+     */
+    public int size() {
+        return keyById.size();
+    }
+
+    /**
+     * Sort a few internships in the order of the index, without walking the whole index.<br>
+     * The position of each internship is looked up once before sorting, so a concurrent rename cannot change the
+     * order while the sort runs. Internships that are not indexed go last.
+     * @param internships the internships to sort, not changed
+     * @return a new list in title order
+     */
+    public List<Internship> sort(List<Internship> internships) {
+        List<Map.Entry<Key, Internship>> positioned = new ArrayList<>(internships.size());
+        for (Internship internship : internships) {
+            positioned.add(new AbstractMap.SimpleImmutableEntry<>(keyById.get(internship.getInternshipID()), internship));
+        }
+        positioned.sort(Map.Entry.comparingByKey(Comparator.nullsLast(Comparator.naturalOrder())));
+        List<Internship> sorted = new ArrayList<>(positioned.size());
+        for (Map.Entry<Key, Internship> entry : positioned) {
+            sorted.add(entry.getValue());
+        }
+        return sorted;
+    }
+
+    /**
+     * Position of an internship: its title, then the order it was added in
+     */
+    private static final class Key implements Comparable<Key> {
+        private static final Comparator<String> TITLES = Comparator.nullsFirst(Comparator.naturalOrder());
+        private final String title;
+        private final long arrival;
+
+        Key(String title, long arrival) {
+            this.title = title;
+            this.arrival = arrival;
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            int byTitle = TITLES.compare(title, other.title);
+            return byTitle != 0 ? byTitle : Long.compare(arrival, other.arrival);
+        }
+    }
+}
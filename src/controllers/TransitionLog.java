@@ -0,0 +1,241 @@
+package controllers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import models.Application.StateTransition;
+
+/**
+ * Append-only write-ahead log of application state transitions.<br>
+ * {@link #append} returns only once the record is forced to disk, which makes every transition durable without
+ * rewriting the application file. Appends are group committed: while one thread forces a batch, records from other
+ * threads accumulate and are forced together by the next flush, so concurrent transitions share one fsync.
+ * If a batch cannot be forced, every append in it fails, not only the one of the flushing thread, and the partly
+ * written batch is cut off the log again so that none of its records is replayed.<br>
+ * The log is replayed on startup with {@link #readEntries()}. Before the applications are saved, {@link #mark()}
+ * names the records forced so far, and once saved {@link #checkpoint(long)} cuts exactly those off the log, keeping
+ * records appended while the save ran.
+ */
+public class TransitionLog {
+    private final Path path;
+    private final Object bufferLock = new Object();
+    private final Object flushLock = new Object();
+    private final StringBuilder buffer = new StringBuilder();
+    private long appendedSeq;
+    private volatile long flushedSeq;
+    // Batches that could not be forced by their last sequence, until every append in them has failed
+    private final TreeMap<Long, FailedBatch> failedBatches = new TreeMap<>();
+    // File offset at the end of each forced batch by its last sequence, sequence 0 ends the records found on startup
+    private final TreeMap<Long, Long> batchEnds = new TreeMap<>();
+
+    /**
+     * @param filePath path of the log file
+     */
+    public TransitionLog(String filePath) {
+        this.path = Path.of(filePath);
+        try {
+            batchEnds.put(0L, Files.size(path));
+        } catch (IOException e) {
+            // No log yet
+        }
+    }
+
+    /**
+     * Durably record a transition of an application
+     * @param applicationId ID of the application
+     * @param transition the transition that was performed
+     * @throws UncheckedIOException if the record could not be forced to disk
+     */
+    public void append(String applicationId, StateTransition transition) {
+        long seq;
+        synchronized (bufferLock) {
+            buffer.append(applicationId).append(',').append(transition.name()).append('\n');
+            seq = ++appendedSeq;
+        }
+        synchronized (flushLock) {
+            if (flushedSeq >= seq) {
+                // Flushed by another thread's batch
+                Map.Entry<Long, FailedBatch> failed = failedBatches.ceilingEntry(seq);
+                if (failed != null && failed.getValue().first <= seq) {
+                    if (--failed.getValue().unreported == 0) failedBatches.remove(failed.getKey());
+                    throw new UncheckedIOException(new IOException("Could not append to " + path));
+                }
+                return;
+            }
+            String batch;
+            long upTo;
+            synchronized (bufferLock) {
+                batch = buffer.toString();
+                buffer.setLength(0);
+                upTo = appendedSeq;
+            }
+            try {
+                batchEnds.put(upTo, write(batch));
+            } catch (UncheckedIOException e) {
+                // The other appends of the batch are still waiting to learn that they failed
+                if (upTo > flushedSeq + 1) failedBatches.put(upTo, new FailedBatch(flushedSeq + 1, upTo - flushedSeq - 1));
+                throw e;
+            } finally {
+                flushedSeq = upTo;
+            }
+        }
+    }
+
+    /**
+     * @return size of the log after the batch
+     */
+    private long write(String batch) {
+        ByteBuffer bytes = StandardCharsets.UTF_8.encode(batch);
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            long sizeBefore = channel.size();
+            try {
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                channel.force(false);
+                return channel.size();
+            } catch (IOException e) {
+                // The transitions of the batch are reverted, so none of its records may be replayed
+                try {
+                    channel.truncate(sizeBefore);
+                    channel.force(false);
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to " + path, e);
+        }
+    }
+
+    /**
+     * Read the logged transitions in the order they were performed.<br>
+     * A trailing record torn by a crash, or a record that cannot be parsed, is skipped.
+     * @return the logged entries, empty if there is no log
+     */
+    public List<Entry> readEntries() {
+        List<String> lines;
+        try {
+            String content = Files.readString(path, StandardCharsets.UTF_8);
+            lines = new ArrayList<>(List.of(content.split("\n", -1)));
+            lines.remove(lines.size() - 1); // Either empty or a torn record
+        } catch (NoSuchFileException e) {
+            return List.of();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + path, e);
+        }
+        List<Entry> entries = new ArrayList<>();
+        for (String line : lines) {
+            int comma = line.lastIndexOf(',');
+            if (comma <= 0) continue;
+            try {
+                entries.add(new Entry(line.substring(0, comma), StateTransition.valueOf(line.substring(comma + 1))));
+            } catch (IllegalArgumentException e) {
+                // Unknown transition, skip the record
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Name the records forced to the log so far, before saving the applications
+     * @return the mark to pass to {@link #checkpoint(long)} once the applications are saved
+     */
+    public long mark() {
+        synchronized (flushLock) {
+            return flushedSeq;
+        }
+    }
+
+    /**
+     * Cut the records up to a mark off the log, once they are contained in a saved application file.<br>
+     * Records forced after the mark are kept. A record still being forced when the mark was taken may already be part
+     * of the saved file and is replayed once more on startup, which the FSM makes harmless.
+     * @param mark the result of {@link #mark()} taken before the save
+     */
+    public void checkpoint(long mark) {
+        synchronized (flushLock) {
+            Map.Entry<Long, Long> cut = batchEnds.floorEntry(mark);
+            if (cut == null) return;
+            long offset = cut.getValue();
+            try {
+                long size = Files.size(path);
+                if (offset >= size) {
+                    Files.deleteIfExists(path);
+                } else {
+                    keepTail(offset);
+                }
+            } catch (NoSuchFileException e) {
+                // Nothing logged
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not clear " + path, e);
+            }
+            batchEnds.headMap(mark, true).clear();
+            batchEnds.replaceAll((seq, end) -> end - offset);
+        }
+    }
+
+    /**
+     * Atomically replace the log with its records from an offset on
+     */
+    private void keepTail(long offset) throws IOException {
+        Path target = path.toAbsolutePath();
+        Path temp = FileHandler.createTempFileFor(target);
+        try {
+            try (FileChannel source = FileChannel.open(target, StandardOpenOption.READ);
+                    FileChannel copy = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                long size = source.size();
+                for (long position = offset; position < size; ) {
+                    position += source.transferTo(position, size - position, copy);
+                }
+                copy.force(false);
+            }
+            FileHandler.moveAtomically(temp, target);
+            FileHandler.syncDirectory(target.getParent());
+        } catch (IOException e) {
+            FileHandler.deleteQuietly(temp);
+            throw e;
+        }
+    }
+
+    /**
+     * A batch that could not be forced: its first sequence and the number of its appends not told yet
+     */
+    private static final class FailedBatch {
+        private final long first;
+        private long unreported;
+
+        FailedBatch(long first, long unreported) {
+            this.first = first;
+            this.unreported = unreported;
+        }
+    }
+
+    /**
+     * A logged transition of one application
+     */
+    public static class Entry {
+        private final String applicationId;
+        private final StateTransition transition;
+
+        public Entry(String applicationId, StateTransition transition) {
+            this.applicationId = applicationId;
+            this.transition = transition;
+        }
+
+        public String getApplicationId() { return applicationId; }
+        public StateTransition getTransition() { return transition; }
+    }
+}
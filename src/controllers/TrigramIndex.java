@@ -0,0 +1,110 @@
+package controllers;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import models.Internship;
+
+/**
+ * Index of the three-character sequences (trigrams) of one text field of each internship, for case-insensitive
+ * substring queries.<br>
+ * A query of three or more characters only looks at the internships containing every trigram of the query, and
+ * then checks each of them for the whole query. Shorter queries have no trigram and check every internship.<br>
+ * Lookups read concurrent maps without locking, changes to the index are serialised.
+ */
+public class TrigramIndex implements InternshipIndex {
+    private final Function<Internship, String> field;
+    // Trigrams packed into a long, 16 bits per char
+    private final Map<Long, Set<String>> postings = new ConcurrentHashMap<>();
+    // Lower-cased field of each internship, used to check candidates without converting the field again
+    private final Map<String, String> textById = new ConcurrentHashMap<>();
+
+    /**
+     * @param field the text field to index, e.g. {@code Internship::getCompanyName}
+     */
+    public TrigramIndex(Function<Internship, String> field) {
+        this.field = field;
+    }
+
+    @Override
+    public synchronized void upsert(Internship internship) {
+        String id = internship.getInternshipID();
+        String value = field.apply(internship);
+        String text = value == null ? "" : value.toLowerCase();
+        String previous = textById.put(id, text);
+        if (text.equals(previous)) return;
+        if (previous != null) {
+            for (long trigram : trigrams(previous)) {
+                removePosting(trigram, id);
+            }
+        }
+        for (long trigram : trigrams(text)) {
+            postings.computeIfAbsent(trigram, k -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    @Override
+    public synchronized void remove(Internship internship) {
+        String id = internship.getInternshipID();
+        String previous = textById.remove(id);
+        if (previous == null) return;
+        for (long trigram : trigrams(previous)) {
+            removePosting(trigram, id);
+        }
+    }
+
+    private void removePosting(long trigram, String id) {
+        Set<String> ids = postings.get(trigram);
+        if (ids == null) return;
+        ids.remove(id);
+        if (ids.isEmpty()) postings.remove(trigram);
+    }
+
+    /**
+     * Find the internships whose field contains a string, ignoring case
+     * @param substring the string to look for
+     * @return IDs of the matching internships
+     */
+    public Set<String> match(String substring) {
+        String query = substring.toLowerCase();
+        Set<String> result = new HashSet<>();
+        Set<Long> queryTrigrams = trigrams(query);
+        if (queryTrigrams.isEmpty()) {
+            textById.forEach((id, text) -> {
+                if (text.contains(query)) result.add(id);
+            });
+            return result;
+        }
+        List<Set<String>> lists = new ArrayList<>(queryTrigrams.size());
+        for (long trigram : queryTrigrams) {
+            Set<String> ids = postings.get(trigram);
+            if (ids == null) return result;
+            lists.add(ids);
+        }
+        // Walk the shortest list, the others are only probed
+        lists.sort(Comparator.comparingInt(Set::size));
+        candidates:
+        for (String id : lists.get(0)) {
+            for (int i = 1; i < lists.size(); i++) {
+                if (!lists.get(i).contains(id)) continue candidates;
+            }
+            // Having every trigram does not mean having them in the right order
+            String text = textById.get(id);
+            if (text != null && text.contains(query)) result.add(id);
+        }
+        return result;
+    }
+
+    private static Set<Long> trigrams(String text) {
+        Set<Long> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            trigrams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return trigrams;
+    }
+}
@@ -1,6 +1,10 @@
 package controllers;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 import models.CareerCenterStaff;
 import models.CompanyRepresentative;
 import models.Student;
@@ -35,23 +39,39 @@ public class UserManager {
      */
     private User currentUser;
 
+    /**
+     * Persistences of each user file, only users that changed are written on save
+     */
+    private final DataPersistence<CareerCenterStaff> staffPersistence = new ChangeLogPersistence<>(new StaffSerializer(), User::getID);
+    private final DataPersistence<Student> studentPersistence = new ChangeLogPersistence<>(new StudentSerializer(), User::getID);
+    private final DataPersistence<CompanyRepresentative> repPersistence = new ChangeLogPersistence<>(new CompanyRepresentativeSerializer(), User::getID);
+
+    /**
+     * Users created or modified since the last save
+     */
+    private final Set<User> dirtyUsers = new LinkedHashSet<>();
+    /**
+     * Number of approved company representatives, kept up to date as representatives are added and approved
+     */
+    private int approvedRepCount;
+
     /**
      * Class Constructor<br>
      * Ensure each object list is loaded accordingly eg. Student list from main code is loaded into Student list in User Manager.
      */
     public UserManager(){
         // Initializing lists into fields  
-        StaffSerializer staffSerializer = new StaffSerializer();
-    	FileHandler<CareerCenterStaff> staffFileHandler = new FileHandler<>(staffSerializer);
-    	staffList = staffFileHandler.readFromFile();
+        staffList = new ArrayList<>();
+        staffPersistence.load(staffList::add);
 
-    	StudentSerializer studentSerializer = new StudentSerializer();
-    	FileHandler<Student> studentFileHandler = new FileHandler<>(studentSerializer);
-    	studentList = studentFileHandler.readFromFile();
+        studentList = new ArrayList<>();
+        studentPersistence.load(studentList::add);
 
-    	CompanyRepresentativeSerializer companyRepSerializer = new CompanyRepresentativeSerializer();
-    	FileHandler<CompanyRepresentative> companyFileHandler = new FileHandler<>(companyRepSerializer);
-    	repList = companyFileHandler.readFromFile();
+        repList = new ArrayList<>();
+        repPersistence.load(repList::add);
+        for (CompanyRepresentative cr : repList) {
+            if (Boolean.TRUE.equals(cr.isApproved())) approvedRepCount++;
+        }
         
         userList = getRespectiveUserList();
     }
@@ -205,6 +225,8 @@ public class UserManager {
     		if(cr.getID().equals(repID)) {
     			if(cr.isApproved() == null) {
     				cr.setApproved(true);
+    				approvedRepCount++;
+    				dirtyUsers.add(cr);
     				User u = cr;
     				userList.add(u);
     				return true;
@@ -233,6 +255,7 @@ public class UserManager {
     		if(cr.getID().equals(repID)) {
     			if(cr.isApproved() == null) { 
     				cr.setApproved(false);
+    				dirtyUsers.add(cr);
     				return true;
     			}
     			else if(cr.isApproved()) {
@@ -261,6 +284,7 @@ public class UserManager {
     	}
     	else {
     		resetUser.resetDefaultPassword();
+    		dirtyUsers.add(resetUser);
     		System.out.println("Password Sucessfully Resetted! New Password: password ");
     	}
     }
@@ -277,6 +301,7 @@ public class UserManager {
      }
      else {
       u.setPassword(oldPassword, sc);
+      dirtyUsers.add(u);
             System.out.println("Login again with new password.");
      }
     }
@@ -293,6 +318,15 @@ public class UserManager {
      */
     public void addCompanyRepresentative(CompanyRepresentative cr) {
     	repList.add(cr);
+    	if (Boolean.TRUE.equals(cr.isApproved())) approvedRepCount++;
+    	dirtyUsers.add(cr);
+    }
+
+    /**
+     * Return number of approved company representatives without visiting the list
+     */
+    public int getApprovedRepCount() {
+        return approvedRepCount;
     }
 
     /**
@@ -331,20 +365,24 @@ public class UserManager {
     }
     
     /**
-     * Function that saves the List of Students, Staff, Company Representative back into the CSV file.
+     * Function that saves the Students, Staff and Company Representatives changed since the last save back into the CSV file.
      */
     public void saveToFile() {
-        StaffSerializer staffSerializer = new StaffSerializer();
-    	FileHandler<CareerCenterStaff> staffFileHandler = new FileHandler<>(staffSerializer);
-    	staffFileHandler.writeToFile(this.staffList);
-
-    	StudentSerializer studentSerializer = new StudentSerializer();
-    	FileHandler<Student> studentFileHandler = new FileHandler<>(studentSerializer);
-    	studentFileHandler.writeToFile(this.studentList);
+        try {
+            staffPersistence.saveChanges(this.staffList, changedUsers(CareerCenterStaff.class), List.of());
+            studentPersistence.saveChanges(this.studentList, changedUsers(Student.class), List.of());
+            repPersistence.saveChanges(this.repList, changedUsers(CompanyRepresentative.class), List.of());
+            dirtyUsers.clear();
+            System.out.println("Saving to Files");
+        } catch (Exception e) {
+            System.out.println("Error saving users: " + e.getMessage());
+        }
+    }
 
-    	CompanyRepresentativeSerializer companyRepSerializer = new CompanyRepresentativeSerializer();
-    	FileHandler<CompanyRepresentative> companyFileHandler = new FileHandler<>(companyRepSerializer);
-    	companyFileHandler.writeToFile(this.repList);
-    	System.out.println("Saving to Files");
+    private <U extends User> List<U> changedUsers(Class<U> type) {
+        return dirtyUsers.stream()
+            .filter(type::isInstance)
+            .map(type::cast)
+            .collect(Collectors.toList());
     }
 }
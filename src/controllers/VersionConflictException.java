@@ -0,0 +1,25 @@
+package controllers;
+
+/**
+ * Thrown when a change is based on a version of an entity that is no longer current,
+ * because another change to the same entity was committed in the meantime.<br>
+ * The caller should reload the entity and retry, or report the conflict to the user.
+ */
+public class VersionConflictException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final String entityId;
+    private final long expectedVersion;
+    private final long actualVersion;
+
+    public VersionConflictException(String entityId, long expectedVersion, long actualVersion) {
+        super(entityId + " was changed by someone else (expected version " + expectedVersion + ", found " + actualVersion + ")");
+        this.entityId = entityId;
+        this.expectedVersion = expectedVersion;
+        this.actualVersion = actualVersion;
+    }
+
+    public String getEntityId() { return entityId; }
+    public long getExpectedVersion() { return expectedVersion; }
+    public long getActualVersion() { return actualVersion; }
+}
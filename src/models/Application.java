@@ -1,11 +1,10 @@
 package models;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class Application {
-    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-    
     /*
      * Defines valid states for an application.
      */
@@ -40,8 +39,11 @@ public class Application {
     private String id;
     private String studentID; 
     private String internshipID; 
-    private ApplicationStatus status;
+    // Changed with compare-and-set so that two concurrent transitions cannot both start from the same state
+    private final AtomicReference<ApplicationStatus> status = new AtomicReference<>();
+    // The applied date as read from text, or null if it was created as a date in appliedOn
     private final String appliedDate; 
+    private final LocalDate appliedOn;
 
     private Student studentRef;
     private Internship internshipRef;
@@ -60,9 +62,10 @@ public class Application {
         this.studentID = studentID;
         this.internshipID = internshipID;
         this.appliedDate = appliedDate;
+        this.appliedOn = null;
         this.studentRef = studentRef;
         this.internshipRef = internshipRef;
-        this.status = status;
+        this.status.set(status);
     }
 
     /**
@@ -78,11 +81,29 @@ public class Application {
         this.studentID = studentID;
         this.internshipID = internshipID;
         try {
-            this.status = ApplicationStatus.valueOf(status.toUpperCase());
+            this.status.set(ApplicationStatus.valueOf(status.toUpperCase()));
         } catch (Exception e) {
-            this.status = ApplicationStatus.PENDING;
+            this.status.set(ApplicationStatus.PENDING);
         }
         this.appliedDate = date;
+        this.appliedOn = null;
+    }
+
+    /**
+     * Constructor for the binary snapshot, taking the status and the applied date as values instead of text
+     * @param id Application ID
+     * @param studentID Student ID
+     * @param internshipID Internship ID
+     * @param status Current status of application
+     * @param appliedOn Date of application
+     */
+    public Application(String id, String studentID, String internshipID, ApplicationStatus status, LocalDate appliedOn) {
+        this.id = id;
+        this.studentID = studentID;
+        this.internshipID = internshipID;
+        this.status.set(status);
+        this.appliedDate = null;
+        this.appliedOn = appliedOn;
     }
     
     
@@ -95,9 +116,9 @@ public class Application {
         this.id = "APP" + System.currentTimeMillis();
         this.studentID = studentID;
         this.internshipID = internshipID;
-        this.status = ApplicationStatus.PENDING;
-        LocalDate localDate = LocalDate.now();
-        this.appliedDate = localDate.format(FORMATTER);
+        this.status.set(ApplicationStatus.PENDING);
+        this.appliedDate = null;
+        this.appliedOn = LocalDate.now();
         this.studentRef = null; // Explicitly set to null
         this.internshipRef = null; // Explicitly set to null
     }
@@ -105,10 +126,22 @@ public class Application {
     public String getID() { return id; }
     public String getStudentID() { return studentID; }
     public String getInternshipID() { return internshipID; }
-    public ApplicationStatus getStatus() { return status; }
-    public String getAppliedDate() { return appliedDate; }
+    public ApplicationStatus getStatus() { return status.get(); }
+    public String getAppliedDate() { return appliedOn != null ? DateCodec.format(appliedOn) : appliedDate; }
 
-    public void setStatus(ApplicationStatus status) { this.status = status; }
+    /**
+     * @return the applied date, or null if it was read as text that is not a dd/MM/yyyy date
+     */
+    public LocalDate getAppliedOn() {
+        if (appliedOn != null || appliedDate == null) return appliedOn;
+        try {
+            return DateCodec.parse(appliedDate);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    public void setStatus(ApplicationStatus status) { this.status.set(status); }
     public void setStudentID(String s) { this.studentID = s; }
     public void setInternshipID(String i) { this.internshipID = i; }
 
@@ -133,7 +166,7 @@ public class Application {
      * @return true if the transition is valid from the current state
      */
     private boolean isTransitionAllowed(StateTransition transition) {
-        return this.status == transition.getFromState();
+        return this.status.get() == transition.getFromState();
     }
     
     /**
@@ -145,8 +178,17 @@ public class Application {
         if (!isTransitionAllowed(transition)) {
             return false;
         }
-        this.status = transition.getToState();
-        return true;
+        // Fails if another thread changed the state since it was checked
+        return this.status.compareAndSet(transition.getFromState(), transition.getToState());
+    }
+
+    /**
+     * Performs a transition given by value, such as one replayed from the transition log.
+     * @param transition The desired transition
+     * @return true if transition succeeded, false if transition is not allowed from the current state
+     */
+    public boolean applyTransition(StateTransition transition) {
+        return performTransition(transition);
     }
 
     /**
@@ -198,6 +240,6 @@ public class Application {
         String internInfo = (internshipID == null) ? "<unknown internship>" : internshipID;
         String studentInfo = (studentID == null) ? "<unknown student>" : studentID;
         return String.format("Application[id=%s, student=%s, internship=%s, status=%s, date=%s]",
-                id, studentInfo, internInfo, status, appliedDate);
+                id, studentInfo, internInfo, status.get(), getAppliedDate());
     }
 }
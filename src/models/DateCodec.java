@@ -0,0 +1,146 @@
+package models;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Parses and formats dates in the fixed-width dd/MM/yyyy format used by the CSV files and the menus.<br>
+ * Well-formed dates are read straight from the characters without going through a {@link DateTimeFormatter},
+ * anything else falls back to the formatter so the accepted input and the errors are unchanged.<br>
+ * Most rows share a handful of opening, closing and applied dates, so recently seen dates are kept in a small
+ * cache together with their text. Entries are immutable, so threads racing on a slot can at worst miss the cache.
+ */
+public final class DateCodec {
+    public static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final int LENGTH = 10;
+    private static final int CACHE_SIZE = 256; // Power of two
+
+    private static final Entry[] CACHE = new Entry[CACHE_SIZE];
+
+    private DateCodec() {}
+
+    /**
+     * Parse a dd/MM/yyyy date
+     * @param text the date
+     * @return the parsed date
+     * @throws java.time.format.DateTimeParseException if the text is not a valid date
+     */
+    public static LocalDate parse(CharSequence text) {
+        return parse(text, 0, text.length());
+    }
+
+    /**
+     * Parse a dd/MM/yyyy date from part of a character sequence
+     * @param text sequence containing the date
+     * @param start index of the first character of the date
+     * @param end index just after the last character of the date
+     * @return the parsed date
+     * @throws java.time.format.DateTimeParseException if the text is not a valid date
+     */
+    public static LocalDate parse(CharSequence text, int start, int end) {
+        int key = end - start == LENGTH ? readKey(text, start) : -1;
+        if (key >= 0) {
+            Entry entry = CACHE[slot(key)];
+            if (entry != null && entry.key == key) return entry.date;
+            int year = key / 10000;
+            int month = key / 100 % 100;
+            int day = key % 100;
+            if (month >= 1 && month <= 12 && day >= 1 && day <= lengthOfMonth(year, month)) {
+                return cache(key, LocalDate.of(year, month, day)).date;
+            }
+        }
+        // Not plain dd/MM/yyyy, let the formatter resolve or reject it
+        return LocalDate.parse(text.subSequence(start, end), FORMATTER);
+    }
+
+    /**
+     * Format a date as dd/MM/yyyy
+     * @param date the date to format
+     * @return the formatted date
+     */
+    public static String format(LocalDate date) {
+        int year = date.getYear();
+        if (year < 0 || year > 9999) return FORMATTER.format(date);
+        int key = key(year, date.getMonthValue(), date.getDayOfMonth());
+        Entry entry = CACHE[slot(key)];
+        if (entry != null && entry.key == key) return entry.text;
+        return cache(key, date).text;
+    }
+
+    /**
+     * Digits of a dd/MM/yyyy date packed as yyyyMMdd, or -1 if the characters are not in that shape
+     */
+    private static int readKey(CharSequence text, int start) {
+        if (text.charAt(start + 2) != '/' || text.charAt(start + 5) != '/') return -1;
+        int day = digits(text, start, 2);
+        int month = digits(text, start + 3, 2);
+        int year = digits(text, start + 6, 4);
+        if (day < 0 || month < 0 || year < 0) return -1;
+        return key(year, month, day);
+    }
+
+    private static int digits(CharSequence text, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) return -1;
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static int key(int year, int month, int day) {
+        return year * 10000 + month * 100 + day;
+    }
+
+    private static int slot(int key) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (CACHE_SIZE - 1);
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    private static Entry cache(int key, LocalDate date) {
+        Entry entry = new Entry(key, date, toText(date));
+        CACHE[slot(key)] = entry;
+        return entry;
+    }
+
+    private static String toText(LocalDate date) {
+        char[] chars = new char[LENGTH];
+        write(chars, 0, date.getDayOfMonth(), 2);
+        chars[2] = '/';
+        write(chars, 3, date.getMonthValue(), 2);
+        chars[5] = '/';
+        write(chars, 6, date.getYear(), 4);
+        return new String(chars);
+    }
+
+    private static void write(char[] chars, int start, int value, int count) {
+        for (int i = start + count - 1; i >= start; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    /**
+     * A cached date with its dd/MM/yyyy text
+     */
+    private static final class Entry {
+        private final int key;
+        private final LocalDate date;
+        private final String text;
+
+        Entry(int key, LocalDate date, String text) {
+            this.key = key;
+            this.date = date;
+            this.text = text;
+        }
+    }
+}
@@ -1,26 +1,40 @@
 package models;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongUnaryOperator;
 
 public class Internship {
     public enum InternshipLevel {BASIC, INTERMEDIATE, ADVANCED};
     public enum InternshipStatus {PENDING, APPROVED, REJECTED, FILLED};
 
     protected String internshipId;
-    protected String title;
-    protected String description;
-    protected InternshipLevel level;
-    protected String preferredMajor;
-    protected LocalDate openingDate;
-    protected LocalDate closingDate;
-    protected InternshipStatus status;
-    protected String companyName;
+    // The editable fields, replaced as a whole so that readers never see an edit half applied
+    private volatile Details details;
     protected String companyRepId;
-    protected int totalSlots;
-    protected int availableSlots;
-    protected int confirmedSlots;
-    protected boolean visible;
+
+    /*
+     * Slot counts, status and visibility packed into one word so that a placement changes them together with a
+     * single compare-and-set: total, confirmed and available slots take 20 bits each, then 3 bits of status
+     * ordinal and 1 bit of visibility.
+     */
+    private static final int COUNT_BITS = 20;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    private static final int CONFIRMED_SHIFT = COUNT_BITS;
+    private static final int AVAILABLE_SHIFT = 2 * COUNT_BITS;
+    private static final int STATUS_SHIFT = 3 * COUNT_BITS;
+    private static final long STATUS_MASK = 0b111;
+    private static final long VISIBLE_BIT = 1L << 63;
+    private static final InternshipStatus[] STATUSES = InternshipStatus.values();
+    /**
+     * Largest number of slots a listing can hold
+     */
+    public static final int MAX_SLOTS = (int) COUNT_MASK;
+
+    private final AtomicLong slotState = new AtomicLong();
+    // Incremented on every change committed to the repository, used to detect conflicting edits
+    private final AtomicLong version = new AtomicLong();
     
     /**
      * Constructor Class for reading from internship listing file (samples)
@@ -42,19 +56,10 @@ public class Internship {
         boolean visible) {
         
         this.internshipId = listingID;
-        this.title = title;
-        this.description = description;
-        this.level = level;
-        this.preferredMajor = preferredMajor;
-        this.openingDate = openingDate;
-        this.closingDate = closingDate;
-        this.status = status;
-        this.companyName = companyName;
+        this.details = new Details(title, description, level, preferredMajor, openingDate, closingDate, companyName);
         this.companyRepId = companyRepId;
-        this.totalSlots = totalSlots;
-        this.availableSlots = totalSlots;
-        this.confirmedSlots = confirmedSlots;
-        this.visible = visible;
+        // Derived from the other counts like setTotalSlots does, a saved listing with confirmed slots must not reopen them
+        this.slotState.set(pack(totalSlots, confirmedSlots, Math.max(0, totalSlots - confirmedSlots), status, visible));
     }
 
     /**
@@ -73,72 +78,114 @@ public class Internship {
         int totalSlots) {
     
         this.internshipId = listingID;
-        this.title = title;
-        this.description = description;
-        this.level = level;
-        this.preferredMajor = preferredMajor;
-        this.openingDate = openingDate;
-        this.closingDate = closingDate;
-        this.status = InternshipStatus.PENDING;
-        this.companyName = companyName;
+        this.details = new Details(title, description, level, preferredMajor, openingDate, closingDate, companyName);
         this.companyRepId = companyRepId;
-        this.totalSlots = totalSlots;
-        this.availableSlots = totalSlots;
-        this.confirmedSlots = 0;
-        this.visible = false;
+        this.slotState.set(pack(totalSlots, 0, totalSlots, InternshipStatus.PENDING, false));
     }
+    /**
+     * Copy constructor, used to edit a listing without changing the shared instance until the edit is committed
+     */
+    public Internship(Internship other) {
+        this.internshipId = other.internshipId;
+        this.details = other.details;
+        this.companyRepId = other.companyRepId;
+        this.slotState.set(other.slotState.get());
+        this.version.set(other.version.get());
+    }
+
     /**
      * Getters
      */
     public String getInternshipID() { return internshipId; }
-    public String getTitle() { return title; }
-    public String getDescription() { return description; }
-    public InternshipLevel getLevel() { return level; }
-    public String getPreferredMajor() { return preferredMajor; }
-    public LocalDate getOpeningDate() { return openingDate; }
-    public LocalDate getClosingDate() { return closingDate; }
-    public InternshipStatus getStatus() { return status; }
-    public String getCompanyName() { return companyName; }
+    public String getTitle() { return details.title; }
+    public String getDescription() { return details.description; }
+    public InternshipLevel getLevel() { return details.level; }
+    public String getPreferredMajor() { return details.preferredMajor; }
+    public LocalDate getOpeningDate() { return details.openingDate; }
+    public LocalDate getClosingDate() { return details.closingDate; }
+    public InternshipStatus getStatus() { return status(slotState.get()); }
+    public String getCompanyName() { return details.companyName; }
     public String getCompanyRepId() { return companyRepId; }
-    public int getTotalSlots() { return totalSlots; }
-    public int getAvailableSlots() { return availableSlots; }
-    public int getConfirmedSlots() { return confirmedSlots; }
-    public boolean isVisible() { return visible; }
+    public int getTotalSlots() { return total(slotState.get()); }
+    public int getAvailableSlots() { return available(slotState.get()); }
+    public int getConfirmedSlots() { return confirmed(slotState.get()); }
+    public boolean isVisible() { return visible(slotState.get()); }
     public boolean isFull() {
         if(this.getAvailableSlots() == 0) return true;
         return false;
     }
+    /**
+     * @return the version of the last change committed to the repository
+     */
+    public long getVersion() { return version.get(); }
 
     /**
      * Setters
      */
-    public void setTitle(String title) { this.title = title; }
-    public void setDescription(String description) { this.description = description; }
-    public void setLevel(InternshipLevel level) { this.level = level; }
-    public void setPreferredMajor(String preferredMajor) { this.preferredMajor = preferredMajor; }
-    public void setOpeningDate(LocalDate openingDate) { this.openingDate = openingDate; }
-    public void setClosingDate(LocalDate closingDate) { this.closingDate = closingDate; }
-    public void setStatus(InternshipStatus status) { this.status = status; }
-    public void setCompanyName(String companyName) { this.companyName = companyName; }
-    public void setVisible() { this.visible = true; }
-    public void setInvisible() { this.visible = false; }
+    public void setTitle(String title) { edit(d -> d.title = title); }
+    public void setDescription(String description) { edit(d -> d.description = description); }
+    public void setLevel(InternshipLevel level) { edit(d -> d.level = level); }
+    public void setPreferredMajor(String preferredMajor) { edit(d -> d.preferredMajor = preferredMajor); }
+    public void setOpeningDate(LocalDate openingDate) { edit(d -> d.openingDate = openingDate); }
+    public void setClosingDate(LocalDate closingDate) { edit(d -> d.closingDate = closingDate); }
+    public void setStatus(InternshipStatus status) { update(s -> withStatus(s, status)); }
+    public void setCompanyName(String companyName) { edit(d -> d.companyName = companyName); }
+    public void setVisible() { update(s -> s | VISIBLE_BIT); }
+    public void setInvisible() { update(s -> s & ~VISIBLE_BIT); }
+    /**
+     * @throws IllegalArgumentException if fewer than the confirmed slots or more than {@link #MAX_SLOTS}, the slots are then unchanged
+     */
     public void setTotalSlots(int totalSlots) {
-        this.totalSlots = totalSlots;
-        this.availableSlots = totalSlots - this.confirmedSlots;
+        update(s -> pack(totalSlots, confirmed(s), totalSlots - confirmed(s), status(s), visible(s)));
     }
     
+    /**
+     * Advance the version, called by the repository inside the compute of the change it commits
+     */
+    public void incrementVersion() {
+        version.incrementAndGet();
+    }
+
+    /**
+     * Copy the fields a company representative can edit from an edited copy of this listing
+     * @param edited the edited copy
+     * @throws IllegalArgumentException if the total slots of the copy are fewer than the slots confirmed on this listing,
+     * nothing is copied then
+     */
+    public void copyEditableFieldsFrom(Internship edited) {
+        // Slots go first, they are the only field that can be rejected
+        if (edited.getTotalSlots() != getTotalSlots()) {
+            setTotalSlots(edited.getTotalSlots());
+        }
+        // Published details are never changed, so the edited copy's can be shared
+        synchronized (this) {
+            this.details = edited.details;
+        }
+    }
+
+    /**
+     * Change the editable fields on a copy of the details and publish it, one change at a time
+     */
+    private synchronized void edit(Consumer<Details> change) {
+        Details next = new Details(details);
+        change.accept(next);
+        this.details = next;
+    }
+
     /**
      * Check if internship is open for applications. IF date is before opening date, listing should not be visible.<br>
      * If date is after closing date, listing should also be hidden. The listing is only visible if within closing and opening date. 
      */
     public boolean isOpenForApplications() {
         LocalDate today = LocalDate.now();
-        return this.status == InternshipStatus.APPROVED &&
-               this.visible &&
-               !today.isBefore(openingDate) &&
-               !today.isAfter(closingDate) &&
-               this.availableSlots > 0 &&
-               this.status != InternshipStatus.FILLED;
+        long state = slotState.get();
+        Details d = details;
+        return status(state) == InternshipStatus.APPROVED &&
+               visible(state) &&
+               !today.isBefore(d.openingDate) &&
+               !today.isAfter(d.closingDate) &&
+               available(state) > 0 &&
+               status(state) != InternshipStatus.FILLED;
     }
 
     /**
@@ -151,25 +198,25 @@ public class Internship {
      */
     public boolean isStudentEligible(int yearOfStudy) {
         // Check eligibility based on year of study
-        if (yearOfStudy <= 2 && this.level != InternshipLevel.BASIC) {
+        if (eligibilityTier(yearOfStudy) == 0 && getLevel() != InternshipLevel.BASIC) {
             return false;
         }
         return true;
     }
 
+    /**
+     * Students of the same tier are eligible for the same internships, see {@link #isStudentEligible}
+     * @return 0 for year 1 and 2 students, 1 for year 3 and above
+     */
+    public static int eligibilityTier(int yearOfStudy) {
+        return yearOfStudy <= 2 ? 0 : 1;
+    }
+
     /**
      * Increment confirmed slots when student accepts placement
      */
     public void incrementConfirmedSlots() {
-        if (confirmedSlots < totalSlots) {
-            confirmedSlots++;
-            availableSlots--;
-            
-            // Update status to FILLED if all slots are confirmed
-            if (confirmedSlots == totalSlots) {
-                this.status = InternshipStatus.FILLED;
-            }
-        }
+        update(Internship::incremented);
     }
 
     /**
@@ -177,27 +224,26 @@ public class Internship {
      * Also checks if the withdrawal happened to open up the listing again
      */
     public void decrementConfirmedSlots() {
-        if (confirmedSlots > 0) {
-            confirmedSlots--;
-            availableSlots++;
-            
-            // Update status from FILLED back to APPROVED if withdrawal happened to be the last slot
-            if (this.getStatus() == InternshipStatus.FILLED && this.getAvailableSlots() > 0) {
-                this.status = InternshipStatus.APPROVED;
-            }
-        }
+        update(Internship::decremented);
     }
 
     /**
      * Confirm a slot when a placement is accepted <br>
-     * Also automatically handles visibility and status updates
+     * Also automatically handles visibility and status updates.<br>
+     * The slot is taken with a single compare-and-set, so concurrent acceptances never confirm more slots than the listing has.
+     * @return true if a slot was confirmed, false if every slot was already confirmed
      */
-    public void confirmSlot() {
-        incrementConfirmedSlots();
-        if (isFull()) {
-            setInvisible();
-            setStatus(InternshipStatus.FILLED);
-        }
+    public boolean confirmSlot() {
+        long previous = update(s -> {
+            long next = incremented(s);
+            // Nothing changes when no slot was left, so a failed confirmation needs no saving or reindexing
+            if (next == s) return s;
+            if (available(next) == 0) {
+                next = withStatus(next & ~VISIBLE_BIT, InternshipStatus.FILLED);
+            }
+            return next;
+        });
+        return confirmed(previous) < total(previous);
     }
 
     /**
@@ -205,32 +251,123 @@ public class Internship {
      * Also automatically handles visibility restoration
      */
     public void withdrawSlot() {
-        decrementConfirmedSlots();
-        if (!isFull() && getAvailableSlots() > 0 && getStatus() == InternshipStatus.FILLED) {
-            setVisible();
-            setStatus(InternshipStatus.APPROVED);
+        update(s -> {
+            long next = decremented(s);
+            if (available(next) > 0 && status(next) == InternshipStatus.FILLED) {
+                next = withStatus(next | VISIBLE_BIT, InternshipStatus.APPROVED);
+            }
+            return next;
+        });
+    }
+
+    /**
+     * Atomically replace the slot state, retrying if another thread changed it in between
+     * @return the state before the change
+     */
+    private long update(LongUnaryOperator change) {
+        return slotState.getAndUpdate(change);
+    }
+
+    private static long incremented(long state) {
+        int confirmed = confirmed(state);
+        int total = total(state);
+        if (confirmed >= total) return state;
+        InternshipStatus status = confirmed + 1 == total ? InternshipStatus.FILLED : status(state);
+        return pack(total, confirmed + 1, available(state) - 1, status, visible(state));
+    }
+
+    private static long decremented(long state) {
+        int confirmed = confirmed(state);
+        if (confirmed <= 0) return state;
+        int available = available(state) + 1;
+        InternshipStatus status = status(state) == InternshipStatus.FILLED && available > 0 ? InternshipStatus.APPROVED : status(state);
+        return pack(total(state), confirmed - 1, available, status, visible(state));
+    }
+
+    private static long pack(int total, int confirmed, int available, InternshipStatus status, boolean visible) {
+        checkCount("Total slots", total);
+        checkCount("Confirmed slots", confirmed);
+        checkCount("Available slots", available);
+        return total
+            | (long) confirmed << CONFIRMED_SHIFT
+            | (long) available << AVAILABLE_SHIFT
+            | (long) status.ordinal() << STATUS_SHIFT
+            | (visible ? VISIBLE_BIT : 0);
+    }
+
+    /**
+     * Check a slot count before creating a listing with it, such as one read from a file
+     * @return true if the count is between 0 and {@link #MAX_SLOTS}
+     */
+    public static boolean isValidSlotCount(int count) {
+        return count >= 0 && count <= MAX_SLOTS;
+    }
+
+    private static void checkCount(String name, int count) {
+        if (!isValidSlotCount(count)) {
+            throw new IllegalArgumentException(name + " must be between 0 and " + MAX_SLOTS + ": " + count);
         }
     }
 
+    private static long withStatus(long state, InternshipStatus status) {
+        return (state & ~(STATUS_MASK << STATUS_SHIFT)) | (long) status.ordinal() << STATUS_SHIFT;
+    }
+
+    private static int total(long state) { return (int) (state & COUNT_MASK); }
+    private static int confirmed(long state) { return (int) (state >>> CONFIRMED_SHIFT & COUNT_MASK); }
+    private static int available(long state) { return (int) (state >>> AVAILABLE_SHIFT & COUNT_MASK); }
+    private static InternshipStatus status(long state) { return STATUSES[(int) (state >>> STATUS_SHIFT & STATUS_MASK)]; }
+    private static boolean visible(long state) { return (state & VISIBLE_BIT) != 0; }
+
     /**
      * Get detailed information of internship listing
      */
     public String getDetailedInfo() {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
         StringBuilder sb = new StringBuilder();
         sb.append("=== Internship Details ===\n");
+        Details d = details;
         sb.append("ID: ").append(internshipId).append("\n");
-        sb.append("Title: ").append(title).append("\n");
-        sb.append("Description: ").append(description).append("\n");
-        sb.append("Company: ").append(companyName).append("\n");
-        sb.append("Level: ").append(level).append("\n");
-        sb.append("Preferred Major: ").append(preferredMajor).append("\n");
-        sb.append("Opening Date: ").append(openingDate.format(formatter)).append("\n");
-        sb.append("Closing Date: ").append(closingDate.format(formatter)).append("\n");
-        sb.append("Status: ").append(status).append("\n");
-        sb.append("Available Slots: ").append(availableSlots).append("/").append(totalSlots).append("\n");
-        sb.append("Confirmed Slots: ").append(confirmedSlots).append("\n");
-        sb.append("Visible to Students: ").append(visible ? "Yes" : "No").append("\n");
+        sb.append("Title: ").append(d.title).append("\n");
+        sb.append("Description: ").append(d.description).append("\n");
+        sb.append("Company: ").append(d.companyName).append("\n");
+        sb.append("Level: ").append(d.level).append("\n");
+        sb.append("Preferred Major: ").append(d.preferredMajor).append("\n");
+        sb.append("Opening Date: ").append(DateCodec.format(d.openingDate)).append("\n");
+        sb.append("Closing Date: ").append(DateCodec.format(d.closingDate)).append("\n");
+        long state = slotState.get();
+        sb.append("Status: ").append(status(state)).append("\n");
+        sb.append("Available Slots: ").append(available(state)).append("/").append(total(state)).append("\n");
+        sb.append("Confirmed Slots: ").append(confirmed(state)).append("\n");
+        sb.append("Visible to Students: ").append(visible(state) ? "Yes" : "No").append("\n");
         return sb.toString();
     }
+
+    /**
+     * The fields a company representative can edit. Only changed before being published in {@link #details}
+     */
+    private static final class Details {
+        private String title;
+        private String description;
+        private InternshipLevel level;
+        private String preferredMajor;
+        private LocalDate openingDate;
+        private LocalDate closingDate;
+        private String companyName;
+
+        Details(String title, String description, InternshipLevel level, String preferredMajor,
+                LocalDate openingDate, LocalDate closingDate, String companyName) {
+            this.title = title;
+            this.description = description;
+            this.level = level;
+            this.preferredMajor = preferredMajor;
+            this.openingDate = openingDate;
+            this.closingDate = closingDate;
+            this.companyName = companyName;
+        }
+
+        Details(Details other) {
+            this(other.title, other.description, other.level, other.preferredMajor,
+                other.openingDate, other.closingDate, other.companyName);
+        }
+    }
 }